@@ -0,0 +1,30 @@
+package com.bci.userregistration.benchmark;
+
+import com.bci.userregistration.UserregistrationApplication;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        List<String> all = new ArrayList<>();
+        all.add("spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1");
+        all.add("spring.h2.console.enabled=false");
+        all.add("logging.level.root=WARN");
+        all.addAll(Arrays.asList(properties));
+        return new SpringApplicationBuilder(UserregistrationApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(all.toArray(new String[0]))
+                .run();
+    }
+}
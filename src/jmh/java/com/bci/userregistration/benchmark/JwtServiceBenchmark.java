@@ -0,0 +1,97 @@
+package com.bci.userregistration.benchmark;
+
+import com.bci.userregistration.index.TokenRevocationList;
+import com.bci.userregistration.metrics.UserMetrics;
+import com.bci.userregistration.service.JwtService;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens por segundo de JwtService comparado con la construcción de clave y parser en cada
+ * llamada (implementación anterior, reproducida en los métodos {@code perCall*}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "bci-integracion-ejercicio-2024-secret-key-secure";
+    private static final String EMAIL = "juan@rodriguez.org";
+
+    private final UUID userId = UUID.randomUUID();
+
+    private JwtService jwtService;
+    private JwtParser sharedParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new UserMetrics(new SimpleMeterRegistry()), new TokenRevocationList(60));
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", 86400000L);
+        jwtService.init();
+        sharedParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        token = jwtService.generateToken(EMAIL, userId);
+    }
+
+    @Benchmark
+    public String perCallGenerateToken() {
+        return Jwts.builder()
+                .setSubject(EMAIL)
+                .claim("userId", userId.toString())
+                .setIssuedAt(new Date())
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(EMAIL, userId);
+    }
+
+    @Benchmark
+    public String perCallParseToken() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String sharedParserParseToken() {
+        return sharedParser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+}
@@ -0,0 +1,94 @@
+package com.bci.userregistration.benchmark;
+
+import com.bci.userregistration.dto.PhoneDTO;
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.entity.PhoneStorage;
+import com.bci.userregistration.entity.User;
+import com.bci.userregistration.repository.UserRepository;
+import com.bci.userregistration.service.IUserService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro y lectura de un usuario con tres teléfonos guardados en la tabla {@code phones}
+ * ({@code TABLE}) o en la columna {@code users.phones_inline} ({@code INLINE}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PhoneStorageBenchmark {
+
+    private static final String EMAIL = "juan@rodriguez.org";
+
+    @Param({"TABLE", "INLINE"})
+    public PhoneStorage storage;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private IUserService userService;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("phone-storage-" + storage, "users.phones.storage=" + storage);
+        userService = context.getBean(IUserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        userService.registerUser(newRequest(EMAIL));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponse registerWithThreePhones() {
+        return userService.registerUser(newRequest("user" + sequence.incrementAndGet() + "@benchmark.org"));
+    }
+
+    @Benchmark
+    public int readWithPhones() {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findByEmail(EMAIL).orElseThrow(IllegalStateException::new);
+            return storage == PhoneStorage.INLINE ? user.getInlinePhones().size() : user.getPhones().size();
+        });
+    }
+
+    private static UserRegistrationRequest newRequest(String email) {
+        List<PhoneDTO> phones = Arrays.asList(
+                PhoneDTO.builder().number("1234567").citycode("1").contrycode("57").build(),
+                PhoneDTO.builder().number("7654321").citycode("2").contrycode("57").build(),
+                PhoneDTO.builder().number("5555555").citycode("9").contrycode("56").build());
+        return UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email(email)
+                .password("hunter2")
+                .phones(phones)
+                .build();
+    }
+}
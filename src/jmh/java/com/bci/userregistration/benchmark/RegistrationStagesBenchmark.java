@@ -0,0 +1,150 @@
+package com.bci.userregistration.benchmark;
+
+import com.bci.userregistration.dto.PhoneDTO;
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.entity.User;
+import com.bci.userregistration.mapper.UserMapper;
+import com.bci.userregistration.repository.UserRepository;
+import com.bci.userregistration.service.IUserService;
+import com.bci.userregistration.service.JwtService;
+import com.bci.userregistration.service.PasswordHasher;
+import com.bci.userregistration.validation.UserValidator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mide por separado cada etapa de {@code UserServiceImpl.registerUser} y el flujo completo
+ * contra H2 embebido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RegistrationStagesBenchmark {
+
+    private static final String EMAIL = "juan@rodriguez.org";
+    private static final String PASSWORD = "hunter2";
+    private static final String TOKEN = "benchmark-token";
+    private static final String PASSWORD_HASH = "pbkdf2-sha256$1$c2Fs$aGFzaA";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private IUserService userService;
+    private UserRepository userRepository;
+    private JwtService jwtService;
+    private UserValidator userValidator;
+    private UserMapper userMapper;
+    private PasswordHasher passwordHasher;
+
+    private UserRegistrationRequest request;
+    private User savedUser;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("registration-stages");
+        userService = context.getBean(IUserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        jwtService = context.getBean(JwtService.class);
+        userValidator = context.getBean(UserValidator.class);
+        userMapper = context.getBean(UserMapper.class);
+        passwordHasher = context.getBean(PasswordHasher.class);
+
+        request = newRequest(EMAIL);
+        userService.registerUser(request);
+        savedUser = userRepository.findByEmail(EMAIL).orElseThrow(IllegalStateException::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserRegistrationRequest validation() {
+        userValidator.validate(request);
+        return request;
+    }
+
+    @Benchmark
+    public boolean existsByEmailHit() {
+        return userRepository.existsByEmail(EMAIL);
+    }
+
+    @Benchmark
+    public boolean existsByEmailMiss() {
+        return userRepository.existsByEmail("nadie@rodriguez.org");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(EMAIL, savedUser.getId());
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return passwordHasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public User buildEntity() {
+        User user = userMapper.buildUser(request, UUID.randomUUID(), TOKEN, PASSWORD_HASH);
+        userMapper.addPhonesToUser(user, request);
+        return user;
+    }
+
+    @Benchmark
+    public User save() {
+        UserRegistrationRequest unique = newRequest(nextEmail());
+        User user = userMapper.buildUser(unique, UUID.randomUUID(), TOKEN, PASSWORD_HASH);
+        userMapper.addPhonesToUser(user, unique);
+        return userRepository.save(user);
+    }
+
+    @Benchmark
+    public UserResponse buildUserResponse() {
+        return userMapper.buildUserResponse(savedUser);
+    }
+
+    @Benchmark
+    public UserResponse registerUser() {
+        return userService.registerUser(newRequest(nextEmail()));
+    }
+
+    private String nextEmail() {
+        return "user" + sequence.incrementAndGet() + "@benchmark.org";
+    }
+
+    private static UserRegistrationRequest newRequest(String email) {
+        List<PhoneDTO> phones = Arrays.asList(
+                PhoneDTO.builder().number("1234567").citycode("1").contrycode("57").build(),
+                PhoneDTO.builder().number("7654321").citycode("2").contrycode("57").build(),
+                PhoneDTO.builder().number("5555555").citycode("9").contrycode("56").build());
+        return UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email(email)
+                .password(PASSWORD)
+                .phones(phones)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.bci.userregistration.benchmark;
+
+import com.bci.userregistration.dto.ErrorResponse;
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.exception.DuplicateEmailException;
+import com.bci.userregistration.exception.GlobalExceptionHandler;
+import com.bci.userregistration.exception.ValidationException;
+import com.bci.userregistration.validation.UserValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diez solicitudes de registro de las que nueve se rechazan (cinco correos repetidos y cuatro
+ * validaciones fallidas), como en un día malo. Compara las excepciones con stack trace y un
+ * {@link ErrorResponse} serializado por respuesta contra las excepciones sin stack trace y
+ * {@link GlobalExceptionHandler}, que reutiliza el cuerpo ya serializado del 409 (mensaje constante) y
+ * serializa por respuesta el 400 de validación. {@code depth} es la cantidad de frames entre el
+ * controlador y el {@code throw}, que en la aplicación real agregan Spring, Tomcat y los filtros.
+ * Con {@code -prof gc} se ve la diferencia de asignación por solicitud.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RejectionPathBenchmark {
+
+    private static final int REQUESTS = 10;
+    private static final String DUPLICATE_MESSAGE = "El correo ya registrado";
+
+    @Param({"20", "120"})
+    private int depth;
+
+    private ObjectMapper objectMapper;
+    private GlobalExceptionHandler handler;
+    private UserResponse created;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        handler = new GlobalExceptionHandler(objectMapper);
+        created = UserResponse.builder()
+                .id(UUID.randomUUID())
+                .created(new Date())
+                .modified(new Date())
+                .lastLogin(new Date())
+                .token("benchmark-token")
+                .isActive(true)
+                .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void stackTraceAndNewErrorResponse(Blackhole blackhole) throws JsonProcessingException {
+        for (int i = 0; i < REQUESTS; i++) {
+            try {
+                blackhole.consume(handle(i, depth, true));
+            } catch (RuntimeException e) {
+                blackhole.consume(objectMapper.writeValueAsBytes(ErrorResponse.builder()
+                        .mensaje(e.getMessage())
+                        .build()));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void stacklessAndCachedBody(Blackhole blackhole) throws JsonProcessingException {
+        for (int i = 0; i < REQUESTS; i++) {
+            try {
+                blackhole.consume(handle(i, depth, false));
+            } catch (DuplicateEmailException e) {
+                blackhole.consume(handler.handleDuplicateEmailException(e).getBody());
+            } catch (ValidationException e) {
+                blackhole.consume(handler.handleValidationException(e).getBody());
+            }
+        }
+    }
+
+    // Baja depth frames y resuelve la solicitud i: la 0 se crea, las 1-5 son correos repetidos y las 6-9 inválidas
+    private byte[] handle(int request, int frames, boolean withStackTrace) throws JsonProcessingException {
+        if (frames > 0) {
+            return handle(request, frames - 1, withStackTrace);
+        }
+        if (request == 0) {
+            return objectMapper.writeValueAsBytes(created);
+        }
+        if (request <= 5) {
+            throw withStackTrace ? new LegacyRejection(DUPLICATE_MESSAGE) : new DuplicateEmailException(DUPLICATE_MESSAGE);
+        }
+        throw withStackTrace
+                ? new LegacyRejection(UserValidator.INVALID_EMAIL_MESSAGE)
+                : new ValidationException(UserValidator.INVALID_EMAIL_MESSAGE);
+    }
+
+    /** Como eran {@code DuplicateEmailException} y {@code ValidationException}: con stack trace. */
+    private static final class LegacyRejection extends RuntimeException {
+
+        LegacyRejection(String message) {
+            super(message);
+        }
+    }
+}
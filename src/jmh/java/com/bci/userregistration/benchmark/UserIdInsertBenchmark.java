@@ -0,0 +1,99 @@
+package com.bci.userregistration.benchmark;
+
+import com.bci.userregistration.id.UserIdGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de insertar {@code rows} usuarios en la tabla {@code users} de H2 con ids aleatorios
+ * ({@link UUID#randomUUID()}) u ordenados por tiempo ({@link UserIdGenerator}). Las filas por
+ * segundo son {@code rows} dividido por el tiempo de {@code insertRows}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class UserIdInsertBenchmark {
+
+    private static final int JDBC_BATCH_SIZE = 1000;
+    private static final String INSERT = "insert into users (id, name, email, password, created, modified, last_login, "
+            + "token, is_active) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"random", "ordered"})
+    public String ids;
+
+    @Param("1000000")
+    public int rows;
+
+    private final UserIdGenerator userIdGenerator = new UserIdGenerator();
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("user-ids-" + ids);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.execute("TRUNCATE TABLE users");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insertRows() {
+        boolean ordered = "ordered".equals(ids);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batch = new ArrayList<>(JDBC_BATCH_SIZE);
+        int inserted = 0;
+        for (int i = 0; i < rows; i++) {
+            UUID id = ordered ? userIdGenerator.next() : UUID.randomUUID();
+            batch.add(new Object[]{toBytes(id), "Usuario " + i, "usuario" + i + "@rodriguez.org", "hunter2",
+                    now, now, now, "benchmark-token", true});
+            if (batch.size() == JDBC_BATCH_SIZE || i == rows - 1) {
+                inserted += jdbcTemplate.batchUpdate(INSERT, batch).length;
+                batch.clear();
+            }
+        }
+        return inserted;
+    }
+
+    // Mismo formato de 16 bytes con el que Hibernate guarda un UUID en H2
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,69 @@
+package com.bci.userregistration.benchmark;
+
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.validation.TextMatchers;
+import com.bci.userregistration.validation.UserValidator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Validación anterior ({@code Pattern.matches} por llamada, que compila la regex cada vez)
+ * contra las reglas compiladas de {@link UserValidator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValidationBenchmark {
+
+    private static final String PASSWORD_PATTERN = "^.{6,}$";
+
+    @Param({"juan@rodriguez.org", "juan.rodriguez+bci@sub.dominio-largo.cl", "correo-invalido"})
+    private String email;
+
+    private UserValidator userValidator;
+    private UserRegistrationRequest request;
+
+    @Setup
+    public void setUp() {
+        userValidator = new UserValidator(Collections.emptyList());
+        ReflectionTestUtils.setField(userValidator, "emailPattern", TextMatchers.DEFAULT_EMAIL_PATTERN);
+        ReflectionTestUtils.setField(userValidator, "passwordPattern", PASSWORD_PATTERN);
+        ReflectionTestUtils.setField(userValidator, "passwordMessage", "La contrasena debe tener al menos 6 caracteres");
+        userValidator.init();
+        request = UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email(email)
+                .password("hunter2")
+                .build();
+    }
+
+    @Benchmark
+    public boolean patternMatchesPerCall() {
+        return Pattern.matches(TextMatchers.DEFAULT_EMAIL_PATTERN, request.getEmail())
+                && Pattern.matches(PASSWORD_PATTERN, request.getPassword());
+    }
+
+    @Benchmark
+    public List<String> compiledRules() {
+        return userValidator.findViolations(request);
+    }
+}
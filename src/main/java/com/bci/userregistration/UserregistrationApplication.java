@@ -1,13 +1,44 @@
 package com.bci.userregistration;
 
+import com.bci.userregistration.export.UserExportCommand;
+import com.bci.userregistration.importer.UserImportCommand;
+
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 @SpringBootApplication
 public class UserregistrationApplication {
 
+	private static final String DDL_AUTO_OPTION = "--spring.jpa.hibernate.ddl-auto";
+
 	public static void main(String[] args) {
-		SpringApplication.run(UserregistrationApplication.class, args);
+		SpringApplication application = new SpringApplication(UserregistrationApplication.class);
+		if (UserExportCommand.isRequested(args) || UserImportCommand.isRequested(args)) {
+			// Exportación o importación por línea de comandos: sin servidor web ni recreación del esquema
+			application.setWebApplicationType(WebApplicationType.NONE);
+			args = withoutSchemaGeneration(args);
+		}
+		application.run(args);
+	}
+
+	/**
+	 * Agrega {@code --spring.jpa.hibernate.ddl-auto=none} si no viene indicado: con el {@code create-drop}
+	 * por defecto se borraría el esquema de la base que se está exportando o importando.
+	 */
+	static String[] withoutSchemaGeneration(String[] args) {
+		for (String arg : args) {
+			if (arg.startsWith(DDL_AUTO_OPTION + "=")) {
+				return args;
+			}
+		}
+		List<String> extended = new ArrayList<>(Arrays.asList(args));
+		extended.add(DDL_AUTO_OPTION + "=none");
+		return extended.toArray(new String[0]);
 	}
 
 }
@@ -0,0 +1,25 @@
+package com.bci.userregistration.config;
+
+import com.bci.userregistration.ratelimit.ClientRateLimiter;
+import com.bci.userregistration.ratelimit.RateLimitInterceptor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final ClientRateLimiter clientRateLimiter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Después de los interceptores de métricas para que los 429 queden en users.registration.outcome
+        registry.addInterceptor(new RateLimitInterceptor(clientRateLimiter))
+                .addPathPatterns("/api/users/sign-up", "/api/users/sign-up/async", "/api/users/sign-up/batch",
+                        "/api/users/login")
+                .order(1);
+    }
+}
@@ -0,0 +1,24 @@
+package com.bci.userregistration.config;
+
+import com.bci.userregistration.metrics.UserMetrics;
+import com.bci.userregistration.metrics.UserMetricsInterceptor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMetricsConfig implements WebMvcConfigurer {
+
+    private final UserMetrics metrics;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new UserMetricsInterceptor(metrics, true))
+                .addPathPatterns("/api/users/sign-up", "/api/users/sign-up/async");
+        registry.addInterceptor(new UserMetricsInterceptor(metrics, false))
+                .addPathPatterns("/api/users/");
+    }
+}
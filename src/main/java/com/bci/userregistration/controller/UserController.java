@@ -1,8 +1,25 @@
 package com.bci.userregistration.controller;
 
+import com.bci.userregistration.dto.BatchRegistrationResponse;
+import com.bci.userregistration.dto.LoginRequest;
+import com.bci.userregistration.dto.PhoneDTO;
 import com.bci.userregistration.dto.UserRegistrationRequest;
 import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.dto.UserSearchCriteria;
+import com.bci.userregistration.exception.InvalidCredentialsException;
+import com.bci.userregistration.export.ExportFormat;
+import com.bci.userregistration.export.UserExporter;
+import com.bci.userregistration.exception.ValidationException;
+import com.bci.userregistration.repository.UserSearchCursor;
+import com.bci.userregistration.service.ILoginService;
+import com.bci.userregistration.service.IUserBatchService;
 import com.bci.userregistration.service.IUserService;
+import com.bci.userregistration.service.IdempotencyCache;
+import com.bci.userregistration.service.RegistrationExecutor;
+import com.bci.userregistration.service.UserListCache;
+import com.bci.userregistration.service.UserListCache.EncodedUserList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,11 +29,30 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springdoc.api.annotations.ParameterObject;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/users")
@@ -24,29 +60,297 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "User List And Registration", description = "API para el listado y registro de usuarios")
 public class UserController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    // Clave aleatoria por proceso: las huellas sólo se comparan dentro de la misma caché en memoria
+    private static final SecretKeySpec FINGERPRINT_KEY = newFingerprintKey();
+
     private final IUserService userService;
+    private final IUserBatchService userBatchService;
+    private final RegistrationExecutor registrationExecutor;
+    private final ObjectMapper objectMapper;
+    private final UserListCache userListCache;
+    private final IdempotencyCache idempotencyCache;
+    private final ILoginService loginService;
+    private final UserExporter userExporter;
     
     @GetMapping("/")
-    @Operation(summary = "Obtener todos los usuarios", description = "Retorna una lista con todos los usuarios registrados en el sistema")
+    @Operation(summary = "Obtener todos los usuarios", description = "Retorna una lista con todos los usuarios registrados en el sistema. "
+            + "Con los parámetros after y/o limit retorna una página ordenada por id; el cursor de la siguiente página viene en el header X-Next-Cursor. "
+            + "La lista completa incluye un ETag y responde 304 a If-None-Match si no hubo registros nuevos")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de usuarios obtenida exitosamente",
                     content = @Content(schema = @Schema(implementation = UserResponse.class))),
+            @ApiResponse(responseCode = "304", description = "La lista no cambió desde el ETag indicado en If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<?> welcome(@RequestParam(required = false) UUID after,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                     WebRequest webRequest) {
+        if (after == null && limit == null) {
+            EncodedUserList list = userListCache.current();
+            if (list == null) {
+                return ResponseEntity.status(HttpStatus.OK).body(userService.findAll());
+            }
+            boolean gzip = list.getGzip() != null && acceptsGzip(acceptEncoding);
+            String eTag = gzip ? list.getGzipETag() : list.getETag();
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                    .eTag(eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(list.getGzip());
+            }
+            return response.body(list.getJson());
+        }
+        List<UserResponse> page = userService.findPage(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (hasNextPage(page, limit)) {
+            response.header(NEXT_CURSOR_HEADER, page.get(page.size() - 1).getId().toString());
+        }
+        return response.body(page);
+    }
+
+    @GetMapping("/by-phone")
+    @Operation(summary = "Buscar usuarios por teléfono", description = "Retorna los usuarios que registraron el teléfono indicado. "
+            + "phone puede venir en formato E.164 (+56912345678) o, junto con contrycode y citycode, sólo el número")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Usuarios con ese teléfono (lista vacía si no hay ninguno)",
+                    content = @Content(schema = @Schema(implementation = UserResponse.class))),
+            @ApiResponse(responseCode = "400", description = "El teléfono no se puede normalizar a E.164")
+    })
+    public ResponseEntity<List<UserResponse>> findByPhone(@RequestParam String phone,
+                                                          @RequestParam(required = false) String citycode,
+                                                          @RequestParam(required = false) String contrycode) {
+        return ResponseEntity.status(HttpStatus.OK).body(userService.findByPhone(phone, citycode, contrycode));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Buscar usuarios", description = "Filtra por estado, rango de creación, rango de último login y prefijo del nombre. "
+            + "Los resultados vienen ordenados por fecha de creación; el cursor de la siguiente página viene en el header X-Next-Cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de usuarios que cumplen los filtros",
+                    content = @Content(schema = @Schema(implementation = UserResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Filtros, cursor o limit inválidos")
+    })
+    public ResponseEntity<List<UserResponse>> search(@ParameterObject UserSearchCriteria criteria,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) Integer limit) {
+        List<UserResponse> page = userService.search(criteria, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (hasNextPage(page, limit)) {
+            response.header(NEXT_CURSOR_HEADER, UserSearchCursor.after(page.get(page.size() - 1)).toString());
+        }
+        return response.body(page);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar usuarios en streaming", description = "Retorna todos los usuarios como NDJSON (un objeto por línea) sin cargar la tabla completa en memoria")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Usuarios enviados en streaming"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<UserResponse>> welcome() {
-        return ResponseEntity.status(HttpStatus.OK).body(userService.findAll());
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        ObjectWriter writer = objectMapper.writerFor(UserResponse.class);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            userService.streamAll(user -> writeLine(out, writer, user));
+            out.flush();
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar usuarios con sus teléfonos", description = "Descarga todos los usuarios con sus teléfonos como NDJSON "
+            + "(un usuario por línea) o CSV (una fila por teléfono), leyendo users y phones en una sola consulta ordenada y escribiendo "
+            + "a medida que llegan las filas. Con Accept-Encoding: gzip la respuesta viene comprimida. No incluye contraseñas ni tokens")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportación enviada en streaming"),
+            @ApiResponse(responseCode = "400", description = "Formato distinto de ndjson o csv")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> userExporter.export(exportFormat, gzip, outputStream);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + exportFormat.getExtension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @PostMapping("/sign-up")
-    @Operation(summary = "Registrar un nuevo usuario", description = "Crea un nuevo usuario en el sistema")
+    @Operation(summary = "Registrar un nuevo usuario", description = "Crea un nuevo usuario en el sistema. "
+            + "Con el header Idempotency-Key los reintentos con la misma clave y el mismo cuerpo reciben la respuesta original "
+            + "(header Idempotent-Replayed: true) sin volver a registrar")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Usuario creado exitosamente",
+                    content = @Content(schema = @Schema(implementation = UserResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+            @ApiResponse(responseCode = "409", description = "El correo ya está registrado"),
+            @ApiResponse(responseCode = "422", description = "La Idempotency-Key ya se usó con otra solicitud")
+    })
+    public ResponseEntity<UserResponse> registerUser(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                     @Valid @RequestBody UserRegistrationRequest request) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(userService.registerUser(request));
+        }
+        if (idempotencyKey.trim().isEmpty() || idempotencyKey.length() > IdempotencyCache.MAX_KEY_LENGTH) {
+            throw new ValidationException("El header Idempotency-Key debe tener entre 1 y "
+                    + IdempotencyCache.MAX_KEY_LENGTH + " caracteres");
+        }
+        IdempotencyCache.Outcome<UserResponse> outcome = idempotencyCache.execute(
+                idempotencyKey, fingerprint(request), () -> userService.registerUser(request));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (outcome.isReplayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(outcome.getValue());
+    }
+
+    @PostMapping("/login")
+    @Operation(summary = "Iniciar sesión", description = "Verifica correo y contraseña y retorna un token nuevo. "
+            + "El last_login se persiste en segundo plano, agrupando los logins de varios usuarios en una sola escritura")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Credenciales válidas",
+                    content = @Content(schema = @Schema(implementation = UserResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+            @ApiResponse(responseCode = "401", description = "Correo o contraseña inválidos")
+    })
+    public ResponseEntity<UserResponse> login(@Valid @RequestBody LoginRequest request) {
+        return ResponseEntity.ok(loginService.login(request));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión", description = "Revoca el token enviado en Authorization: Bearer hasta su expiración")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token revocado"),
+            @ApiResponse(responseCode = "401", description = "Token inválido o expirado")
+    })
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            throw new InvalidCredentialsException("Se requiere el header Authorization: Bearer <token>");
+        }
+        loginService.logout(authorization.substring(BEARER_PREFIX.length()).trim());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/sign-up/async")
+    @Operation(summary = "Registrar un nuevo usuario (asíncrono)", description = "Igual que /sign-up pero el registro se ejecuta en un pool acotado, "
+            + "liberando el hilo de la solicitud; si la cola está llena responde 503 con Retry-After")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Usuario creado exitosamente",
                     content = @Content(schema = @Schema(implementation = UserResponse.class))),
             @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
-            @ApiResponse(responseCode = "409", description = "El correo ya está registrado")
+            @ApiResponse(responseCode = "409", description = "El correo ya está registrado"),
+            @ApiResponse(responseCode = "503", description = "Servicio saturado, reintentar según Retry-After")
+    })
+    public CompletableFuture<ResponseEntity<UserResponse>> registerUserAsync(@Valid @RequestBody UserRegistrationRequest request) {
+        return CompletableFuture.supplyAsync(() -> userService.registerUser(request), registrationExecutor)
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @PostMapping("/sign-up/batch")
+    @Operation(summary = "Registrar usuarios en lote", description = "Registra una lista de usuarios y retorna el resultado de cada uno "
+            + "(201 creado, 400 datos inválidos, 409 correo ya registrado, 503 o 500 si falló su bloque) en el mismo orden de la solicitud")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote procesado; revisar el estado de cada elemento",
+                    content = @Content(schema = @Schema(implementation = BatchRegistrationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Lista vacía o demasiado grande")
     })
-    public ResponseEntity<UserResponse> registerUser(@Valid @RequestBody UserRegistrationRequest request) {
-        UserResponse response = userService.registerUser(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<BatchRegistrationResponse> registerUsers(@RequestBody List<UserRegistrationRequest> requests) {
+        return ResponseEntity.status(HttpStatus.OK).body(userBatchService.registerUsers(requests));
+    }
+
+    private static void writeLine(OutputStream out, ObjectWriter writer, UserResponse user) {
+        try {
+            out.write(writer.writeValueAsBytes(user));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Huella HMAC-SHA256 del cuerpo, para detectar una misma Idempotency-Key reutilizada con otros datos sin
+     * guardar la contraseña en memoria. Con la clave secreta del proceso, la huella no permite probar
+     * contraseñas candidatas fuera de él como lo permitiría un SHA-256 sin sal.
+     */
+    private static String fingerprint(UserRegistrationRequest request) {
+        StringBuilder canonical = new StringBuilder()
+                .append(request.getName()).append('\0')
+                .append(request.getEmail()).append('\0')
+                .append(request.getPassword());
+        if (request.getPhones() != null) {
+            for (PhoneDTO phone : request.getPhones()) {
+                if (phone == null) {
+                    canonical.append('\1');
+                    continue;
+                }
+                canonical.append('\0').append(phone.getNumber())
+                        .append('\0').append(phone.getCitycode())
+                        .append('\0').append(phone.getContrycode());
+            }
+        }
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(FINGERPRINT_KEY);
+            byte[] digest = mac.doFinal(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SecretKeySpec newFingerprintKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+    }
+
+    // Una página más corta que el límite es la última: sin cursor el cliente no vuelve a pedir
+    private boolean hasNextPage(List<UserResponse> page, Integer limit) {
+        return !page.isEmpty() && page.size() >= userService.resolvePageLimit(limit);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !isZeroQuality(parts[1].trim());
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        if (!parameter.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(parameter.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
 }
@@ -0,0 +1,19 @@
+package com.bci.userregistration.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRegistrationResponse {
+
+    private int created;
+    private int rejected;
+    private List<BatchRegistrationResult> results;
+}
@@ -0,0 +1,20 @@
+package com.bci.userregistration.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchRegistrationResult {
+
+    private int index;
+    private int status;
+    private UserResponse user;
+    private String mensaje;
+}
@@ -3,7 +3,6 @@ package com.bci.userregistration.dto;
 import java.util.List;
 
 import javax.validation.Valid;
-import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import lombok.Builder;
@@ -20,7 +19,6 @@ public class UserRegistrationRequest {
     private String name;
 
     @NotBlank(message = "El correo es obligatorio")
-    @Email(message = "El formato del correo es inválido")
     private String email;
 
     @NotBlank(message = "La contraseña es obligatoria")
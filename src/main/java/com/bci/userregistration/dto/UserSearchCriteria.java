@@ -0,0 +1,37 @@
+package com.bci.userregistration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+import java.util.Date;
+
+/**
+ * Filtros de la búsqueda de usuarios; los que vienen en {@code null} no se aplican. Los rangos
+ * incluyen el inicio y excluyen el fin.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchCriteria {
+
+    private Boolean active;
+
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private Date createdFrom;
+
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private Date createdTo;
+
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private Date lastLoginFrom;
+
+    @DateTimeFormat(iso = ISO.DATE_TIME)
+    private Date lastLoginTo;
+
+    private String namePrefix;
+}
@@ -8,8 +8,10 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +20,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "phones")
+// (e164, user_id) permite resolver la búsqueda por teléfono sólo con el índice
+@Table(name = "phones", indexes = @Index(name = "idx_phones_e164_user", columnList = "e164, user_id"))
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,7 +30,8 @@ import lombok.Setter;
 public class Phone {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "phone_seq")
+    @SequenceGenerator(name = "phone_seq", sequenceName = "phone_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -39,8 +43,12 @@ public class Phone {
     @Column(name = "country_code", nullable = false)
     private String contrycode;
 
+    // Forma canónica +<país><área><número>; null si los datos no forman un E.164 válido
+    @Column(length = 16)
+    private String e164;
+
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, columnDefinition = "binary(16)")
     @JsonIgnore
     private User user;
 }
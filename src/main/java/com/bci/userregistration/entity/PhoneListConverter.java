@@ -0,0 +1,59 @@
+package com.bci.userregistration.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Guarda la lista de teléfonos como un arreglo JSON compacto de tuplas
+ * {@code [["1234567","1","57","+5711234567"],...]}; una lista vacía se guarda como {@code null}.
+ */
+@Converter
+public class PhoneListConverter implements AttributeConverter<List<PhoneNumber>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String[]>> TUPLES = new TypeReference<List<String[]>>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<PhoneNumber> phones) {
+        return toColumn(phones);
+    }
+
+    @Override
+    public List<PhoneNumber> convertToEntityAttribute(String column) {
+        List<PhoneNumber> phones = new ArrayList<>();
+        if (column == null || column.isEmpty()) {
+            return phones;
+        }
+        try {
+            for (String[] tuple : MAPPER.readValue(column, TUPLES)) {
+                phones.add(new PhoneNumber(tuple[0], tuple[1], tuple[2], tuple.length > 3 ? tuple[3] : null));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Columna phones_inline inválida", e);
+        }
+        return phones;
+    }
+
+    public static String toColumn(List<PhoneNumber> phones) {
+        if (phones == null || phones.isEmpty()) {
+            return null;
+        }
+        List<String[]> tuples = new ArrayList<>(phones.size());
+        for (PhoneNumber phone : phones) {
+            tuples.add(new String[]{phone.getNumber(), phone.getCitycode(), phone.getContrycode(), phone.getE164()});
+        }
+        try {
+            return MAPPER.writeValueAsString(tuples);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se pudo serializar la lista de teléfonos", e);
+        }
+    }
+}
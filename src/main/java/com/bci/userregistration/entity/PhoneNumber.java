@@ -0,0 +1,21 @@
+package com.bci.userregistration.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Teléfono guardado dentro de la fila del usuario (ver {@link PhoneStorage#INLINE}).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhoneNumber {
+
+    private String number;
+    private String citycode;
+    private String contrycode;
+    private String e164;
+}
@@ -0,0 +1,13 @@
+package com.bci.userregistration.entity;
+
+/**
+ * Dónde se guardan los teléfonos de los usuarios nuevos ({@code users.phones.storage}).
+ */
+public enum PhoneStorage {
+
+    /** Una fila por teléfono en la tabla {@code phones}. */
+    TABLE,
+
+    /** Todos los teléfonos en la columna {@code users.phones_inline}: un solo insert por usuario. */
+    INLINE
+}
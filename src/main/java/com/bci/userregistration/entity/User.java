@@ -2,39 +2,66 @@ package com.bci.userregistration.entity;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.CollectionTable;
+import javax.persistence.Convert;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
+import javax.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.springframework.data.domain.Persistable;
+
 @Entity
-@Table(name = "users")
+// Índices para los filtros de UserSearchRepository; (is_active, created, id) y (created, id) ya
+// entregan las filas en el orden del keyset, así que una página profunda no ordena ni descarta filas
+@Table(name = "users",
+        uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+        indexes = {
+                @Index(name = "idx_users_active_created", columnList = "is_active, created, id"),
+                @Index(name = "idx_users_created", columnList = "created, id"),
+                @Index(name = "idx_users_last_login", columnList = "last_login"),
+                @Index(name = "idx_users_name", columnList = "name")
+        })
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class User {
+public class User implements Persistable<UUID> {
+
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
 
+    // 16 bytes exactos: con binary(255) H2 rellena el valor guardado y ni "id = ?" ni "id > ?" comparan
+    // contra el parámetro de 16 bytes que enlaza Hibernate
     @Id
+    @Column(columnDefinition = "binary(16)")
     private UUID id;
 
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -59,8 +86,29 @@ public class User {
     private Boolean isActive;
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
     private List<Phone> phones = new ArrayList<>();
 
+    // Teléfonos en la misma fila cuando users.phones.storage=INLINE
+    @Convert(converter = PhoneListConverter.class)
+    @Column(name = "phones_inline", length = 2000)
+    @Builder.Default
+    private List<PhoneNumber> inlinePhones = new ArrayList<>();
+
+    // E.164 de los teléfonos inline, con (e164, user_id) indexado para buscar por teléfono sin recorrer users
+    @ElementCollection
+    @CollectionTable(name = "user_phone_e164",
+            joinColumns = @JoinColumn(name = "user_id", columnDefinition = "binary(16)"),
+            indexes = @Index(name = "idx_user_phone_e164_user", columnList = "e164, user_id"))
+    @Column(name = "e164", length = 16, nullable = false)
+    @Builder.Default
+    private Set<String> inlinePhoneE164s = new HashSet<>();
+
+    // El id se asigna antes de guardar; sin esto save() haría merge (SELECT previo) en vez de persist
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
     @PrePersist
     protected void onCreate() {
         Date now = new Date();
@@ -77,6 +125,17 @@ public class User {
         modified = new Date();
     }
 
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        newEntity = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
     public void addPhone(Phone phone) {
         phones.add(phone);
         phone.setUser(this);
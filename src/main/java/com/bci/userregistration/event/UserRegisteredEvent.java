@@ -0,0 +1,14 @@
+package com.bci.userregistration.event;
+
+import com.bci.userregistration.dto.UserResponse;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class UserRegisteredEvent {
+
+    private final String email;
+    private final UserResponse user;
+}
@@ -1,7 +1,8 @@
 package com.bci.userregistration.exception;
 
-public class DuplicateEmailException extends RuntimeException {
+// Se lanza sólo con mensajes constantes
+public class DuplicateEmailException extends RejectionException {
     public DuplicateEmailException(String message) {
-        super(message);
+        super(message, true);
     }
 }
@@ -0,0 +1,8 @@
+package com.bci.userregistration.exception;
+
+// Se lanza sólo con mensajes constantes
+public class IdempotencyKeyConflictException extends RejectionException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message, true);
+    }
+}
@@ -0,0 +1,8 @@
+package com.bci.userregistration.exception;
+
+// Se lanza sólo con mensajes constantes
+public class InvalidCredentialsException extends RejectionException {
+    public InvalidCredentialsException(String message) {
+        super(message, true);
+    }
+}
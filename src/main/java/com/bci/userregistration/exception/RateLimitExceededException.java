@@ -0,0 +1,16 @@
+package com.bci.userregistration.exception;
+
+public class RateLimitExceededException extends RejectionException {
+
+    private final long retryAfterSeconds;
+
+    // Se lanza sólo con mensajes constantes
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message, true);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
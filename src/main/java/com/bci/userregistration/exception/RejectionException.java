@@ -0,0 +1,29 @@
+package com.bci.userregistration.exception;
+
+/**
+ * Base de las excepciones con las que se rechaza una solicitud (400, 401, 409, 422, 429, 503). Son
+ * parte del flujo normal y, en días de muchos rechazos, la mayoría de las respuestas: no capturan
+ * stack trace ni admiten excepciones suprimidas, así que lanzarlas cuesta lo mismo que crear un objeto.
+ * El mensaje es lo único que llega al cliente, por lo que debe bastar para diagnosticar el rechazo.
+ */
+public abstract class RejectionException extends RuntimeException {
+
+    private final boolean fixedMessage;
+
+    protected RejectionException(String message) {
+        this(message, false);
+    }
+
+    /**
+     * {@code fixedMessage} indica que el mensaje es una constante del código, sin datos de la solicitud
+     * ni de la configuración; {@link GlobalExceptionHandler} serializa esos cuerpos una sola vez.
+     */
+    protected RejectionException(String message, boolean fixedMessage) {
+        super(message, null, false, false);
+        this.fixedMessage = fixedMessage;
+    }
+
+    public boolean hasFixedMessage() {
+        return fixedMessage;
+    }
+}
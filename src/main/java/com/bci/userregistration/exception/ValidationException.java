@@ -1,6 +1,6 @@
 package com.bci.userregistration.exception;
 
-public class ValidationException extends RuntimeException {
+public class ValidationException extends RejectionException {
     public ValidationException(String message) {
         super(message);
     }
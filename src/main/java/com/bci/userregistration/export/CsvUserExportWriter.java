@@ -0,0 +1,108 @@
+package com.bci.userregistration.export;
+
+import com.bci.userregistration.entity.PhoneNumber;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * CSV según RFC 4180 (separador coma, fin de línea CRLF, comillas sólo cuando el valor las necesita),
+ * con una fila por teléfono.
+ */
+class CsvUserExportWriter implements UserExportWriter {
+
+    static final String HEADER = "id,name,email,created,modified,last_login,isactive,number,citycode,contrycode,e164";
+
+    private static final String LINE_END = "\r\n";
+
+    private final Writer writer;
+
+    CsvUserExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write(LINE_END);
+    }
+
+    @Override
+    public void write(ExportedUser user) throws IOException {
+        if (user.getPhones().isEmpty()) {
+            writeUser(user);
+            writer.write(",,,,");
+            writer.write(LINE_END);
+            return;
+        }
+        for (PhoneNumber phone : user.getPhones()) {
+            writeUser(user);
+            writer.write(',');
+            writeValue(phone.getNumber());
+            writer.write(',');
+            writeValue(phone.getCitycode());
+            writer.write(',');
+            writeValue(phone.getContrycode());
+            writer.write(',');
+            writeValue(phone.getE164());
+            writer.write(LINE_END);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeUser(ExportedUser user) throws IOException {
+        writer.write(user.getId().toString());
+        writer.write(',');
+        writeValue(user.getName());
+        writer.write(',');
+        writeValue(user.getEmail());
+        writer.write(',');
+        writeDate(user.getCreated());
+        writer.write(',');
+        writeDate(user.getModified());
+        writer.write(',');
+        writeDate(user.getLastLogin());
+        writer.write(',');
+        writer.write(user.isActive() ? "true" : "false");
+    }
+
+    private void writeDate(Date value) throws IOException {
+        if (value != null) {
+            writer.write(value.toInstant().toString());
+        }
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bci.userregistration.export;
+
+import com.bci.userregistration.exception.ValidationException;
+
+/**
+ * Formatos de la exportación de usuarios.
+ */
+public enum ExportFormat {
+
+    /** Un objeto JSON por usuario y línea, con sus teléfonos en un arreglo. */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** Una fila por teléfono con los datos del usuario repetidos; un usuario sin teléfonos ocupa una fila. */
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat from(String value) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new ValidationException("El formato de exportación debe ser ndjson o csv");
+    }
+}
@@ -0,0 +1,36 @@
+package com.bci.userregistration.export;
+
+import com.bci.userregistration.entity.PhoneNumber;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Un usuario con sus teléfonos tal como se exporta; no incluye la contraseña ni el token.
+ */
+@Getter
+class ExportedUser {
+
+    private final UUID id;
+    private final String name;
+    private final String email;
+    private final Date created;
+    private final Date modified;
+    private final Date lastLogin;
+    private final boolean active;
+    private final List<PhoneNumber> phones = new ArrayList<>();
+
+    ExportedUser(UUID id, String name, String email, Date created, Date modified, Date lastLogin, boolean active) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.created = created;
+        this.modified = modified;
+        this.lastLogin = lastLogin;
+        this.active = active;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bci.userregistration.export;
+
+import com.bci.userregistration.entity.PhoneNumber;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+
+/**
+ * {@code {"id":...,"name":...,"phones":[{"number":...}]}} por línea, escrito campo a campo con el
+ * generador de Jackson para no armar un árbol ni un DTO por usuario.
+ */
+class NdjsonUserExportWriter implements UserExportWriter {
+
+    // Sin separador entre valores raíz: el fin de línea lo escribe write()
+    private static final JsonFactory JSON = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+
+    private final JsonGenerator generator;
+
+    NdjsonUserExportWriter(OutputStream out) throws IOException {
+        this.generator = JSON.createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    @Override
+    public void write(ExportedUser user) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", user.getId().toString());
+        generator.writeStringField("name", user.getName());
+        generator.writeStringField("email", user.getEmail());
+        writeDate("created", user.getCreated());
+        writeDate("modified", user.getModified());
+        writeDate("last_login", user.getLastLogin());
+        generator.writeBooleanField("isactive", user.isActive());
+        generator.writeArrayFieldStart("phones");
+        for (PhoneNumber phone : user.getPhones()) {
+            generator.writeStartObject();
+            generator.writeStringField("number", phone.getNumber());
+            generator.writeStringField("citycode", phone.getCitycode());
+            generator.writeStringField("contrycode", phone.getContrycode());
+            generator.writeStringField("e164", phone.getE164());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.close();
+    }
+
+    private void writeDate(String field, Date value) throws IOException {
+        generator.writeStringField(field, value == null ? null : value.toInstant().toString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.bci.userregistration.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exportación sin servidor web: {@code java -jar userregistration.jar --export=/ruta/users.csv.gz}
+ * arranca la aplicación contra el {@code spring.datasource.url} indicado, escribe el archivo y termina
+ * con código 0 (o 1 si falla) antes de las cargas iniciales de los índices en memoria. El formato sale de
+ * {@code --format=csv|ndjson} o de la extensión del archivo, y se comprime con {@code --gzip} o si el
+ * archivo termina en {@code .gz}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserExportCommand implements ApplicationRunner {
+
+    public static final String EXPORT_OPTION = "export";
+
+    private static final String FORMAT_OPTION = "format";
+    private static final String GZIP_OPTION = "gzip";
+
+    private final UserExporter userExporter;
+    private final ApplicationContext context;
+
+    public static boolean isRequested(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--" + EXPORT_OPTION) || arg.startsWith("--" + EXPORT_OPTION + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(EXPORT_OPTION)) {
+            return;
+        }
+        int exitCode = export(args);
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private int export(ApplicationArguments args) {
+        List<String> files = args.getOptionValues(EXPORT_OPTION);
+        if (files.isEmpty() || files.get(0).trim().isEmpty()) {
+            log.error("Indique el archivo de salida con --{}=<archivo>", EXPORT_OPTION);
+            return 1;
+        }
+        Path file = Paths.get(files.get(0));
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean gzip = args.containsOption(GZIP_OPTION) || name.endsWith(".gz");
+        try {
+            ExportFormat format = args.containsOption(FORMAT_OPTION)
+                    ? ExportFormat.from(args.getOptionValues(FORMAT_OPTION).get(0))
+                    : name.endsWith(".csv") || name.endsWith(".csv.gz") ? ExportFormat.CSV : ExportFormat.NDJSON;
+            long start = System.currentTimeMillis();
+            long users = userExporter.exportTo(file, format, gzip);
+            log.info("Exportados {} usuarios a {} ({}{}) en {} ms", users, file.toAbsolutePath(),
+                    format.getExtension(), gzip ? ", gzip" : "", System.currentTimeMillis() - start);
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            log.error("No se pudo exportar a {}", file.toAbsolutePath(), e);
+            return 1;
+        }
+    }
+}
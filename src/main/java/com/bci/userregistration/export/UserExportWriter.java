@@ -0,0 +1,21 @@
+package com.bci.userregistration.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escribe usuarios de a uno en el formato de la exportación; sólo guarda lo que su propio buffer necesita.
+ */
+interface UserExportWriter {
+
+    void write(ExportedUser user) throws IOException;
+
+    /**
+     * Vacía los buffers del escritor sin cerrar el stream de salida.
+     */
+    void finish() throws IOException;
+
+    static UserExportWriter create(ExportFormat format, OutputStream out) throws IOException {
+        return format == ExportFormat.CSV ? new CsvUserExportWriter(out) : new NdjsonUserExportWriter(out);
+    }
+}
@@ -0,0 +1,170 @@
+package com.bci.userregistration.export;
+
+import com.bci.userregistration.entity.PhoneListConverter;
+import com.bci.userregistration.entity.PhoneNumber;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta {@code users} con sus teléfonos en una sola consulta {@code users left join phones} ordenada
+ * por usuario, leída con un cursor JDBC. Las filas de un usuario llegan juntas, así que en memoria sólo
+ * está el usuario en curso y los buffers de salida, sin importar cuántas filas tenga la tabla. Con
+ * {@code users.phones.storage=INLINE} los teléfonos de {@code users.phones_inline} se exportan antes que
+ * los de la tabla {@code phones}. La contraseña y el token no se exportan.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserExporter {
+
+    private static final String SELECT_USERS_WITH_PHONES = "select u.id, u.name, u.email, u.created, u.modified, "
+            + "u.last_login, u.is_active, u.phones_inline, p.number, p.city_code, p.country_code, p.e164 "
+            + "from users u left join phones p on p.user_id = u.id order by u.id, p.id";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final PhoneListConverter INLINE_PHONES = new PhoneListConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${users.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    /**
+     * Escribe la exportación en {@code out} y retorna la cantidad de usuarios. Vacía los buffers propios
+     * pero no cierra {@code out}.
+     */
+    public long export(ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(buffered, BUFFER_SIZE) : null;
+        UserExportWriter writer = UserExportWriter.create(format, compressed != null ? compressed : buffered);
+        long users = writeAll(writer);
+        writer.finish();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        buffered.flush();
+
+        Timer.builder("users.export")
+                .description("Duración de cada exportación completa de usuarios")
+                .tag("format", format.getExtension())
+                .tag("gzip", String.valueOf(gzip))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Counter.builder("users.export.users")
+                .description("Usuarios escritos por las exportaciones")
+                .register(meterRegistry)
+                .increment(users);
+        return users;
+    }
+
+    /**
+     * Exporta a un archivo escribiendo por un {@link FileChannel}. Se escribe primero en
+     * {@code <archivo>.tmp} y se renombra al terminar, para que una exportación fallida no deje un
+     * archivo a medias con el nombre final.
+     */
+    public long exportTo(Path file, ExportFormat format, boolean gzip) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+        long users;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            users = export(format, gzip, Channels.newOutputStream(channel));
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return users;
+    }
+
+    private long writeAll(UserExportWriter writer) throws IOException {
+        UserRows rows = new UserRows(writer);
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_USERS_WITH_PHONES,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, rows);
+            rows.writeCurrent();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows.written;
+    }
+
+    /**
+     * Agrupa las filas consecutivas de un mismo usuario y lo escribe al aparecer el siguiente.
+     */
+    private static final class UserRows implements RowCallbackHandler {
+
+        private final UserExportWriter writer;
+        private ExportedUser current;
+        private long written;
+
+        private UserRows(UserExportWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = toUuid(rs.getBytes(1));
+            if (current == null || !current.getId().equals(id)) {
+                writeCurrent();
+                current = new ExportedUser(id, rs.getString(2), rs.getString(3), rs.getTimestamp(4),
+                        rs.getTimestamp(5), rs.getTimestamp(6), rs.getBoolean(7));
+                current.getPhones().addAll(INLINE_PHONES.convertToEntityAttribute(rs.getString(8)));
+            }
+            String number = rs.getString(9);
+            if (number != null) {
+                current.getPhones().add(new PhoneNumber(number, rs.getString(10), rs.getString(11), rs.getString(12)));
+            }
+        }
+
+        private void writeCurrent() {
+            if (current == null) {
+                return;
+            }
+            try {
+                writer.write(current);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written++;
+            current = null;
+        }
+    }
+
+    // Mismo formato de 16 bytes con el que Hibernate guarda un UUID en H2
+    private static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
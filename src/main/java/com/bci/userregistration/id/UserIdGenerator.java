@@ -0,0 +1,56 @@
+package com.bci.userregistration.id;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Genera ids de usuario ordenados por tiempo con el formato UUIDv7 (RFC 9562): 48 bits de
+ * milisegundos Unix, 12 bits de contador y 62 bits aleatorios. Dentro de un mismo nodo los ids
+ * son estrictamente crecientes, incluso si el reloj retrocede, por lo que las inserciones van al
+ * final del índice primario en vez de repartirse por todo el árbol.
+ *
+ * <p>Los bits aleatorios vienen de {@link ThreadLocalRandom}: el id no es un secreto y así no se
+ * comparte el {@code SecureRandom} de {@link UUID#randomUUID()} entre hilos.
+ */
+@Component
+public class UserIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final LongSupplier clock;
+
+    // Milisegundos << 12 | contador del último id emitido
+    private final AtomicLong lastTimestamp = new AtomicLong();
+
+    public UserIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    UserIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public UUID next() {
+        long candidate = clock.getAsLong() << COUNTER_BITS;
+        long timestamp;
+        long previous;
+        do {
+            previous = lastTimestamp.get();
+            // Si el contador se agota o el reloj retrocede se avanza sobre el último valor emitido
+            timestamp = Math.max(candidate, previous + 1);
+        } while (!lastTimestamp.compareAndSet(previous, timestamp));
+
+        long millis = timestamp >>> COUNTER_BITS;
+        long counter = timestamp & ((1L << COUNTER_BITS) - 1);
+        long mostSignificant = (millis << 16) | VERSION_7 | counter;
+        long leastSignificant = VARIANT_RFC_4122 | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bci.userregistration.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Avance confirmado de una importación: hasta {@code offset} (línea {@code line}) todo está guardado en
+ * la base de datos o en el reporte de rechazos. Se guarda como properties en {@code <archivo>.checkpoint},
+ * reemplazándolo de forma atómica después de cada bloque.
+ */
+final class ImportCheckpoint {
+
+    static final ImportCheckpoint START = new ImportCheckpoint(0, 0, 0, 0);
+
+    final long offset;
+    final long line;
+    final long imported;
+    final long rejected;
+
+    ImportCheckpoint(long offset, long line, long imported, long rejected) {
+        this.offset = offset;
+        this.line = line;
+        this.imported = imported;
+        this.rejected = rejected;
+    }
+
+    static ImportCheckpoint load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return START;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        return new ImportCheckpoint(
+                Long.parseLong(properties.getProperty("offset")),
+                Long.parseLong(properties.getProperty("line")),
+                Long.parseLong(properties.getProperty("imported")),
+                Long.parseLong(properties.getProperty("rejected")));
+    }
+
+    void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("offset", Long.toString(offset));
+        properties.setProperty("line", Long.toString(line));
+        properties.setProperty("imported", Long.toString(imported));
+        properties.setProperty("rejected", Long.toString(rejected));
+        Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            properties.store(out, null);
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,30 @@
+package com.bci.userregistration.importer;
+
+/**
+ * Bloque de líneas consecutivas del archivo, tal como lo entrega {@link NdjsonChunkReader}. Los bytes de
+ * todas las líneas van en un solo arreglo; {@code lengths[i] < 0} marca una línea que superó
+ * {@code users.import.max-line-bytes} y se descartó sin leerla.
+ */
+final class ImportChunk {
+
+    final long sequence;
+    final byte[] data;
+    final int[] starts;
+    final int[] lengths;
+    final long[] lineNumbers;
+    final int count;
+    final long endOffset;
+    final long lastLine;
+
+    ImportChunk(long sequence, byte[] data, int[] starts, int[] lengths, long[] lineNumbers, int count,
+                long endOffset, long lastLine) {
+        this.sequence = sequence;
+        this.data = data;
+        this.starts = starts;
+        this.lengths = lengths;
+        this.lineNumbers = lineNumbers;
+        this.count = count;
+        this.endOffset = endOffset;
+        this.lastLine = lastLine;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bci.userregistration.importer;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Resultado de una ejecución de {@link UserImporter}. Los contadores cubren sólo esta ejecución, salvo
+ * {@code totalImported} y {@code totalRejected}, que incluyen las ejecuciones anteriores retomadas desde
+ * el checkpoint.
+ */
+@Getter
+@Builder
+public class ImportReport {
+
+    private final String file;
+    private final long resumedFromLine;
+    private final long lastLine;
+    private final long read;
+    private final long imported;
+    private final long rejected;
+    private final long totalImported;
+    private final long totalRejected;
+    private final long elapsedMillis;
+    private final String rejectedReport;
+
+    // Registros por segundo de tiempo ocupado en cada etapa (read, validate, token, hash, persist)
+    private final Map<String, Long> stageThroughput;
+}
@@ -0,0 +1,165 @@
+package com.bci.userregistration.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Lee un archivo NDJSON por un {@link FileChannel} con un buffer de 1 MiB y lo corta en bloques de
+ * {@code chunkLines} líneas no vacías, copiando cada tramo una sola vez al arreglo del bloque. Sólo separa
+ * líneas: el JSON se interpreta después, en los workers. Las líneas vacías se cuentan pero no generan
+ * registro, y un {@code \r} final se descarta.
+ */
+final class NdjsonChunkReader {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int INITIAL_CHUNK_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final int chunkLines;
+    private final int maxLineBytes;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private long position;
+    private long line;
+    private long sequence;
+    private boolean endOfFile;
+
+    private byte[] data;
+    private int dataLength;
+    private int lineStart;
+    private boolean oversize;
+    private int[] starts;
+    private int[] lengths;
+    private long[] lineNumbers;
+    private int count;
+
+    /**
+     * @param offset posición del archivo donde empieza la primera línea a leer
+     * @param line   número de líneas ya leídas antes de {@code offset}
+     */
+    NdjsonChunkReader(FileChannel channel, long offset, long line, int chunkLines, int maxLineBytes) throws IOException {
+        this.channel = channel.position(offset);
+        this.chunkLines = chunkLines;
+        this.maxLineBytes = maxLineBytes;
+        this.position = offset;
+        this.line = line;
+        buffer.flip();
+        newChunk(INITIAL_CHUNK_BYTES);
+    }
+
+    /**
+     * Retorna el siguiente bloque o {@code null} al llegar al final del archivo.
+     */
+    ImportChunk next() throws IOException {
+        while (count < chunkLines) {
+            if (!buffer.hasRemaining() && !fill()) {
+                // Última línea sin salto de línea final
+                if (dataLength > lineStart || oversize) {
+                    endLine();
+                }
+                break;
+            }
+            byte[] bytes = buffer.array();
+            int from = buffer.position();
+            int limit = buffer.limit();
+            int newline = indexOfNewline(bytes, from, limit);
+            int end = newline < 0 ? limit : newline;
+            append(bytes, from, end - from);
+            int consumed = newline < 0 ? limit : newline + 1;
+            buffer.position(consumed);
+            position += consumed - from;
+            if (newline >= 0) {
+                endLine();
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        ImportChunk chunk = new ImportChunk(sequence++, data, starts, lengths, lineNumbers, count, position, line);
+        newChunk(Math.max(INITIAL_CHUNK_BYTES, dataLength));
+        return chunk;
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfFile) {
+            return false;
+        }
+        buffer.clear();
+        int read = channel.read(buffer);
+        buffer.flip();
+        if (read < 0) {
+            endOfFile = true;
+            return false;
+        }
+        return true;
+    }
+
+    private void append(byte[] bytes, int from, int length) {
+        if (oversize || length == 0) {
+            return;
+        }
+        if (dataLength - lineStart + length > maxLineBytes) {
+            oversize = true;
+            dataLength = lineStart;
+            return;
+        }
+        if (dataLength + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + length));
+        }
+        System.arraycopy(bytes, from, data, dataLength, length);
+        dataLength += length;
+    }
+
+    private void endLine() {
+        line++;
+        if (!oversize && dataLength > lineStart && data[dataLength - 1] == '\r') {
+            dataLength--;
+        }
+        if (oversize) {
+            add(-1);
+        } else if (isBlank(lineStart, dataLength)) {
+            dataLength = lineStart;
+        } else {
+            add(dataLength - lineStart);
+        }
+        oversize = false;
+        lineStart = dataLength;
+    }
+
+    private void add(int length) {
+        starts[count] = lineStart;
+        lengths[count] = length;
+        lineNumbers[count] = line;
+        count++;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] != ' ' && data[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void newChunk(int capacity) {
+        data = new byte[capacity];
+        dataLength = 0;
+        lineStart = 0;
+        starts = new int[chunkLines];
+        lengths = new int[chunkLines];
+        lineNumbers = new long[chunkLines];
+        count = 0;
+    }
+
+    private static int indexOfNewline(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
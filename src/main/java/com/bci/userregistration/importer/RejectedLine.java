@@ -0,0 +1,17 @@
+package com.bci.userregistration.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Una línea del reporte {@code <archivo>.rejected.ndjson}, con el mismo status y mensaje que tendría en
+ * {@code /sign-up/batch}.
+ */
+@Getter
+@AllArgsConstructor
+class RejectedLine {
+
+    private final long line;
+    private final int status;
+    private final String mensaje;
+}
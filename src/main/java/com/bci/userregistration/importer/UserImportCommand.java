@@ -0,0 +1,72 @@
+package com.bci.userregistration.importer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Importación sin servidor web: {@code java -jar userregistration.jar --import=/ruta/users.ndjson}
+ * importa el archivo contra el {@code spring.datasource.url} indicado y termina con código 0, o 1 si
+ * falla. Sin opciones retoma desde {@code <archivo>.checkpoint}; {@code --import.restart} empieza de cero.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserImportCommand implements ApplicationRunner {
+
+    public static final String IMPORT_OPTION = "import";
+
+    private static final String RESTART_OPTION = "import.restart";
+
+    private final UserImporter userImporter;
+    private final ApplicationContext context;
+
+    public static boolean isRequested(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--" + IMPORT_OPTION) || arg.startsWith("--" + IMPORT_OPTION + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(IMPORT_OPTION)) {
+            return;
+        }
+        int exitCode = importFile(args);
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private int importFile(ApplicationArguments args) {
+        List<String> files = args.getOptionValues(IMPORT_OPTION);
+        if (files.isEmpty() || files.get(0).trim().isEmpty()) {
+            log.error("Indique el archivo a importar con --{}=<archivo>", IMPORT_OPTION);
+            return 1;
+        }
+        Path file = Paths.get(files.get(0));
+        try {
+            ImportReport report = userImporter.importFile(file, args.containsOption(RESTART_OPTION));
+            log.info("Importación de {} terminada en {} ms: {} líneas leídas, {} importados, {} rechazados "
+                            + "(total {} importados, {} rechazados; detalle en {}). Registros por segundo por etapa: {}",
+                    report.getFile(), report.getElapsedMillis(), report.getRead(), report.getImported(),
+                    report.getRejected(), report.getTotalImported(), report.getTotalRejected(),
+                    report.getRejectedReport(), report.getStageThroughput());
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            log.error("La importación de {} se detuvo; se retomará desde el último checkpoint", file.toAbsolutePath(), e);
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package com.bci.userregistration.importer;
+
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.id.UserIdGenerator;
+import com.bci.userregistration.service.BulkUser;
+import com.bci.userregistration.service.JwtService;
+import com.bci.userregistration.service.PasswordHasher;
+import com.bci.userregistration.service.UserBulkWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Importa usuarios desde un archivo NDJSON de {@link UserRegistrationRequest} en tres etapas:
+ * <ol>
+ *     <li>un hilo lector corta el archivo en bloques de {@code users.import.chunk-size} líneas
+ *     ({@link NdjsonChunkReader});</li>
+ *     <li>{@code users.import.workers} hilos interpretan el JSON, aplican las mismas validaciones que
+ *     {@code /sign-up/batch} ({@link UserBulkWriter}), generan id y token y calculan el hash de las contraseñas en la parte del
+ *     pool de {@link PasswordHasher} reservada a lotes;</li>
+ *     <li>el hilo que llama recibe los bloques por una cola acotada ({@code users.import.queue-capacity}),
+ *     los vuelve a poner en el orden del archivo y guarda cada uno con {@link UserBulkWriter}, en una
+ *     transacción con inserts en batch JDBC.</li>
+ * </ol>
+ * Un semáforo limita los bloques en vuelo, así que la memoria no depende del tamaño del archivo. Después
+ * de cada bloque se agregan sus rechazos a {@code <archivo>.rejected.ndjson} y se guarda el checkpoint
+ * {@code <archivo>.checkpoint}; una nueva ejecución continúa desde ahí. Si el proceso se corta entre el
+ * commit de un bloque y su checkpoint, al retomar ese bloque sus usuarios se informan como correos ya
+ * registrados (409) en vez de duplicarse.
+ *
+ * <p>La importación corre antes de que la aplicación quede lista y termina el proceso, así que no publica
+ * {@link com.bci.userregistration.event.UserRegisteredEvent}: el índice de correos y el listado en memoria
+ * todavía no están cargados y los leerán desde la base de datos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserImporter {
+
+    private static final String DUPLICATE_EMAIL_MESSAGE = "El correo ya registrado";
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final ObjectMapper objectMapper;
+    private final UserBulkWriter bulkWriter;
+    private final UserIdGenerator userIdGenerator;
+    private final JwtService jwtService;
+    private final PasswordHasher passwordHasher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${users.import.workers:0}")
+    private int workers;
+
+    @Value("${users.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${users.import.queue-capacity:4}")
+    private int queueCapacity = 4;
+
+    @Value("${users.import.max-line-bytes:65536}")
+    private int maxLineBytes = 65536;
+
+    private Map<String, Stage> stages;
+
+    @PostConstruct
+    public void init() {
+        stages = new LinkedHashMap<>();
+        for (String stage : new String[]{"read", "validate", "token", "hash", "persist"}) {
+            stages.put(stage, new Stage(
+                    Timer.builder("users.import.stage").tag("stage", stage)
+                            .description("Tiempo de cada bloque en cada etapa de la importación")
+                            .register(meterRegistry),
+                    Counter.builder("users.import.records").tag("stage", stage)
+                            .description("Registros que completaron cada etapa de la importación")
+                            .register(meterRegistry)));
+        }
+        stages.put("rejected", new Stage(null, Counter.builder("users.import.records").tag("stage", "rejected")
+                .description("Líneas rechazadas por la importación").register(meterRegistry)));
+    }
+
+    /**
+     * Importa {@code file} desde su último checkpoint, o desde el principio si {@code restart} es
+     * {@code true} (el reporte de rechazos también se reinicia).
+     */
+    public ImportReport importFile(Path file, boolean restart) throws IOException {
+        Path checkpointFile = sibling(file, ".checkpoint");
+        Path rejectedFile = sibling(file, ".rejected.ndjson");
+        ImportCheckpoint checkpoint = restart ? ImportCheckpoint.START : ImportCheckpoint.load(checkpointFile);
+        if (checkpoint.offset > Files.size(file)) {
+            throw new IllegalStateException("El checkpoint " + checkpointFile + " apunta más allá del final del archivo");
+        }
+        if (checkpoint.offset > 0) {
+            log.info("Retomando la importación de {} desde la línea {} ({} importados, {} rechazados)",
+                    file, checkpoint.line + 1, checkpoint.imported, checkpoint.rejected);
+        }
+        StandardOpenOption mode = restart ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND;
+        try (BufferedWriter rejectedReport = Files.newBufferedWriter(rejectedFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            return new ImportRun(file, checkpointFile, rejectedFile, rejectedReport, checkpoint).run();
+        }
+    }
+
+    private ValidatedChunk validate(ImportChunk chunk, StageRecorder recorder) {
+        long start = System.nanoTime();
+        List<ImportedUser> accepted = new ArrayList<>(chunk.count);
+        List<RejectedLine> rejected = new ArrayList<>();
+        for (int i = 0; i < chunk.count; i++) {
+            long line = chunk.lineNumbers[i];
+            if (chunk.lengths[i] < 0) {
+                rejected.add(new RejectedLine(line, HttpStatus.BAD_REQUEST.value(),
+                        "La línea supera el máximo de " + maxLineBytes + " bytes"));
+                continue;
+            }
+            UserRegistrationRequest request;
+            try {
+                request = objectMapper.readValue(chunk.data, chunk.starts[i], chunk.lengths[i], UserRegistrationRequest.class);
+            } catch (JsonProcessingException e) {
+                rejected.add(new RejectedLine(line, HttpStatus.BAD_REQUEST.value(), "JSON inválido: " + e.getOriginalMessage()));
+                continue;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            String error = bulkWriter.validate(request);
+            if (error != null) {
+                rejected.add(new RejectedLine(line, HttpStatus.BAD_REQUEST.value(), error));
+            } else {
+                accepted.add(new ImportedUser(line, request));
+            }
+        }
+        recorder.record("validate", System.nanoTime() - start, chunk.count);
+
+        start = System.nanoTime();
+        for (ImportedUser user : accepted) {
+            user.setUserId(userIdGenerator.next());
+            user.setToken(jwtService.generateToken(user.getEmail(), user.getUserId()));
+        }
+        recorder.record("token", System.nanoTime() - start, accepted.size());
+
+        start = System.nanoTime();
+        List<String> passwordHashes = passwordHasher.hashAll(accepted.stream()
+                .map(user -> user.getRequest().getPassword())
+                .collect(Collectors.toList()));
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).setPasswordHash(passwordHashes.get(i));
+        }
+        recorder.record("hash", System.nanoTime() - start, accepted.size());
+        return new ValidatedChunk(chunk, accepted, rejected);
+    }
+
+    /**
+     * Guarda los usuarios válidos de un bloque y agrega a sus rechazos los correos repetidos o ya
+     * registrados. Retorna la cantidad de usuarios creados.
+     */
+    private int persist(ValidatedChunk chunk, StageRecorder recorder) {
+        long start = System.nanoTime();
+        Set<String> seenEmails = new HashSet<>();
+        List<ImportedUser> candidates = new ArrayList<>(chunk.users.size());
+        for (ImportedUser user : chunk.users) {
+            if (seenEmails.add(user.getEmail())) {
+                candidates.add(user);
+            } else {
+                chunk.rejected.add(duplicate(user));
+            }
+        }
+
+        Set<String> existingEmails = bulkWriter.findRegisteredEmails(candidates.stream()
+                .map(ImportedUser::getEmail)
+                .collect(Collectors.toList()));
+        List<ImportedUser> pending = new ArrayList<>(candidates.size());
+        for (ImportedUser user : candidates) {
+            if (existingEmails.contains(user.getEmail())) {
+                chunk.rejected.add(duplicate(user));
+            } else {
+                pending.add(user);
+            }
+        }
+
+        bulkWriter.saveAll(pending, false);
+        int created = 0;
+        for (ImportedUser user : pending) {
+            if (user.getCreated() != null) {
+                created++;
+            } else {
+                chunk.rejected.add(duplicate(user));
+            }
+        }
+        chunk.rejected.sort(Comparator.comparingLong(RejectedLine::getLine));
+        recorder.record("persist", System.nanoTime() - start, created);
+        recorder.record("rejected", 0, chunk.rejected.size());
+        return created;
+    }
+
+    private int workerCount() {
+        return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static RejectedLine duplicate(ImportedUser user) {
+        return new RejectedLine(user.line, HttpStatus.CONFLICT.value(), DUPLICATE_EMAIL_MESSAGE);
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    /**
+     * Estado de una ejecución: hilo lector, pool de workers y la cola hacia el escritor, que corre en el
+     * hilo que llamó a {@link #importFile}.
+     */
+    private final class ImportRun implements StageRecorder {
+
+        private final Path file;
+        private final Path checkpointFile;
+        private final Path rejectedFile;
+        private final BufferedWriter rejectedReport;
+        private final ImportCheckpoint resumedFrom;
+
+        private final BlockingQueue<ValidatedChunk> validated = new ArrayBlockingQueue<>(queueCapacity);
+        // Bloques leídos y aún no guardados; acota la memoria aunque los workers terminen fuera de orden
+        private final Semaphore inFlight = new Semaphore(queueCapacity + workerCount());
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicLong chunksRead = new AtomicLong();
+        private final Map<String, StageTotals> totals = new LinkedHashMap<>();
+        private volatile boolean readerDone;
+
+        private ImportRun(Path file, Path checkpointFile, Path rejectedFile, BufferedWriter rejectedReport,
+                          ImportCheckpoint resumedFrom) {
+            this.file = file;
+            this.checkpointFile = checkpointFile;
+            this.rejectedFile = rejectedFile;
+            this.rejectedReport = rejectedReport;
+            this.resumedFrom = resumedFrom;
+            for (String stage : stages.keySet()) {
+                totals.put(stage, new StageTotals());
+            }
+        }
+
+        private ImportReport run() throws IOException {
+            long start = System.nanoTime();
+            int threads = workerCount();
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor workerPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "user-import-worker-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            Thread reader = new Thread(() -> read(workerPool), "user-import-reader");
+            reader.setDaemon(true);
+            reader.start();
+
+            ImportCheckpoint checkpoint = resumedFrom;
+            try {
+                checkpoint = write(checkpoint);
+            } finally {
+                reader.interrupt();
+                workerPool.shutdownNow();
+            }
+
+            Map<String, Long> throughput = new LinkedHashMap<>();
+            totals.forEach((stage, total) -> {
+                if (total.nanos.sum() > 0) {
+                    throughput.put(stage, total.records.sum() * TimeUnit.SECONDS.toNanos(1) / total.nanos.sum());
+                }
+            });
+            return ImportReport.builder()
+                    .file(file.toString())
+                    .resumedFromLine(resumedFrom.line)
+                    .lastLine(checkpoint.line)
+                    .read(totals.get("read").records.sum())
+                    .imported(checkpoint.imported - resumedFrom.imported)
+                    .rejected(checkpoint.rejected - resumedFrom.rejected)
+                    .totalImported(checkpoint.imported)
+                    .totalRejected(checkpoint.rejected)
+                    .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .rejectedReport(rejectedFile.toString())
+                    .stageThroughput(throughput)
+                    .build();
+        }
+
+        private void read(ThreadPoolExecutor workerPool) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                NdjsonChunkReader reader = new NdjsonChunkReader(channel, resumedFrom.offset, resumedFrom.line,
+                        chunkSize, maxLineBytes);
+                while (true) {
+                    inFlight.acquire();
+                    long start = System.nanoTime();
+                    ImportChunk chunk = reader.next();
+                    if (chunk == null) {
+                        inFlight.release();
+                        break;
+                    }
+                    record("read", System.nanoTime() - start, chunk.count);
+                    chunksRead.incrementAndGet();
+                    workerPool.execute(() -> validateChunk(chunk));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                readerDone = true;
+            }
+        }
+
+        private void validateChunk(ImportChunk chunk) {
+            try {
+                validated.put(validate(chunk, this));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }
+
+        private ImportCheckpoint write(ImportCheckpoint checkpoint) throws IOException {
+            Map<Long, ValidatedChunk> outOfOrder = new HashMap<>();
+            long next = 0;
+            long lastLog = System.nanoTime();
+            while (true) {
+                rethrowFailure();
+                if (readerDone && next == chunksRead.get()) {
+                    rethrowFailure();
+                    return checkpoint;
+                }
+                ValidatedChunk chunk;
+                try {
+                    chunk = validated.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Importación interrumpida en la línea " + checkpoint.line, e);
+                }
+                if (chunk == null) {
+                    continue;
+                }
+                outOfOrder.put(chunk.sequence, chunk);
+                for (ValidatedChunk ready = outOfOrder.remove(next); ready != null; ready = outOfOrder.remove(next)) {
+                    checkpoint = commit(ready, checkpoint);
+                    inFlight.release();
+                    next++;
+                }
+                if (System.nanoTime() - lastLog > PROGRESS_LOG_INTERVAL_NANOS) {
+                    lastLog = System.nanoTime();
+                    log.info("Importación de {}: línea {}, {} importados, {} rechazados", file, checkpoint.line,
+                            checkpoint.imported, checkpoint.rejected);
+                }
+            }
+        }
+
+        private ImportCheckpoint commit(ValidatedChunk chunk, ImportCheckpoint checkpoint) throws IOException {
+            int created = persist(chunk, this);
+            for (RejectedLine rejected : chunk.rejected) {
+                rejectedReport.write(objectMapper.writeValueAsString(rejected));
+                rejectedReport.write('\n');
+            }
+            rejectedReport.flush();
+            ImportCheckpoint next = new ImportCheckpoint(chunk.endOffset, chunk.lastLine,
+                    checkpoint.imported + created, checkpoint.rejected + chunk.rejected.size());
+            next.save(checkpointFile);
+            return next;
+        }
+
+        @Override
+        public void record(String stage, long nanos, long records) {
+            stages.get(stage).record(nanos, records);
+            StageTotals total = totals.get(stage);
+            total.nanos.add(nanos);
+            total.records.add(records);
+        }
+
+        private void rethrowFailure() throws IOException {
+            Throwable t = failure.get();
+            if (t == null) {
+                return;
+            }
+            if (t instanceof IOException) {
+                throw (IOException) t;
+            }
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Recibe el tiempo y los registros de cada etapa de un bloque.
+     */
+    private interface StageRecorder {
+        void record(String stage, long nanos, long records);
+    }
+
+    /**
+     * Timer y contador de Micrometer de una etapa, acumulados entre ejecuciones.
+     */
+    private static final class Stage {
+        private final Timer timer;
+        private final Counter records;
+
+        private Stage(Timer timer, Counter records) {
+            this.timer = timer;
+            this.records = records;
+        }
+
+        private void record(long nanos, long count) {
+            if (timer != null) {
+                timer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+            records.increment(count);
+        }
+    }
+
+    private static final class StageTotals {
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder records = new LongAdder();
+    }
+
+    private static final class ImportedUser extends BulkUser {
+        private final long line;
+
+        private ImportedUser(long line, UserRegistrationRequest request) {
+            super(request);
+            this.line = line;
+        }
+    }
+
+    private static final class ValidatedChunk {
+        private final long sequence;
+        private final long endOffset;
+        private final long lastLine;
+        private final List<ImportedUser> users;
+        private final List<RejectedLine> rejected;
+
+        private ValidatedChunk(ImportChunk source, List<ImportedUser> users, List<RejectedLine> rejected) {
+            this.sequence = source.sequence;
+            this.endOffset = source.endOffset;
+            this.lastLine = source.lastLine;
+            this.users = users;
+            this.rejected = rejected;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.bci.userregistration.index;
+
+import com.bci.userregistration.event.UserRegisteredEvent;
+import com.bci.userregistration.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Índice en memoria de los correos registrados. Una respuesta negativa de {@link #mightContain}
+ * es definitiva y permite omitir la consulta {@code existsByEmail}; la restricción única de
+ * {@code users.email} sigue siendo la garantía final.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailIndex {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${users.email-index.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${users.email-index.fpp:0.01}")
+    private double fpp;
+
+    private BloomFilter filter;
+    private volatile boolean ready;
+
+    private Counter absentLookups;
+    private Counter maybeLookups;
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedInsertions, fpp);
+        absentLookups = Counter.builder("users.email_index.lookups").tag("result", "absent")
+                .description("Consultas respondidas como ausentes sin ir a la base de datos").register(meterRegistry);
+        maybeLookups = Counter.builder("users.email_index.lookups").tag("result", "maybe")
+                .description("Consultas que requieren confirmar en la base de datos").register(meterRegistry);
+        falsePositives = Counter.builder("users.email_index.false_positives")
+                .description("Consultas 'maybe' que la base de datos no confirmó").register(meterRegistry);
+        Gauge.builder("users.email_index.fpp.expected", this, index -> index.filter.expectedFpp())
+                .description("Tasa de falsos positivos esperada según la ocupación del filtro").register(meterRegistry);
+        Gauge.builder("users.email_index.fpp.observed", this, EmailIndex::observedFpp)
+                .description("Falsos positivos sobre el total de correos ausentes consultados").register(meterRegistry);
+        Gauge.builder("users.email_index.memory", this, index -> index.filter.memoryBytes())
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("users.email_index.insertions", this, index -> index.filter.approximateInsertions())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(filter::put);
+        }
+        ready = true;
+        log.info("Índice de correos cargado con {} registros en {} ms ({} bytes)",
+                filter.approximateInsertions(), System.currentTimeMillis() - start, filter.memoryBytes());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        add(event.getEmail());
+    }
+
+    public void add(String email) {
+        filter.put(email);
+    }
+
+    public boolean mightContain(String email) {
+        if (!ready || filter.mightContain(email)) {
+            maybeLookups.increment();
+            return true;
+        }
+        absentLookups.increment();
+        return false;
+    }
+
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    private double observedFpp() {
+        double negatives = absentLookups.count() + falsePositives.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+}
@@ -0,0 +1,132 @@
+package com.bci.userregistration.index;
+
+import com.bci.userregistration.dto.UserResponse;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Lista inmutable de usuarios repartida en segmentos de {@value #SEGMENT_SIZE} posiciones. Cada
+ * versión es un par (segmentos, tamaño): agregar escribe en las posiciones libres del último
+ * segmento y reemplazar un usuario copia sólo su segmento, así que una versión nueva comparte
+ * todo lo demás con la anterior. Las versiones anteriores nunca leen más allá de su tamaño, por
+ * lo que las escrituras en posiciones libres no las alteran; {@link #append} y {@link #replace}
+ * deben llamarse siempre sobre la última versión y de a una a la vez.
+ */
+public final class SegmentedUserList extends AbstractList<UserResponse> implements RandomAccess {
+
+    static final int SEGMENT_SIZE = 1024;
+
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    static final SegmentedUserList EMPTY = new SegmentedUserList(new UserResponse[0][], 0);
+
+    // Puede tener más lugares que segmentos en uso; los que están después del último son null
+    private final UserResponse[][] segments;
+    private final int size;
+
+    private SegmentedUserList(UserResponse[][] segments, int size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    static SegmentedUserList of(List<UserResponse> users) {
+        return EMPTY.append(users);
+    }
+
+    @Override
+    public UserResponse get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice: " + index + ", tamaño: " + size);
+        }
+        return segments[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int segmentCount() {
+        return (size + SEGMENT_MASK) >>> SEGMENT_SHIFT;
+    }
+
+    /**
+     * Usuarios del segmento, en orden; todos los segmentos salvo el último tienen {@value #SEGMENT_SIZE}.
+     */
+    public List<UserResponse> segment(int index) {
+        int from = index << SEGMENT_SHIFT;
+        if (index < 0 || from >= size) {
+            throw new IndexOutOfBoundsException("Segmento: " + index + ", segmentos: " + segmentCount());
+        }
+        int length = Math.min(SEGMENT_SIZE, size - from);
+        return Collections.unmodifiableList(Arrays.asList(segments[index]).subList(0, length));
+    }
+
+    /**
+     * Identifica el contenido de un segmento completo: es el mismo objeto en todas las versiones
+     * hasta que se reemplaza alguno de sus usuarios. El último segmento puede seguir creciendo
+     * con la misma clave mientras no esté completo.
+     */
+    public Object segmentKey(int index) {
+        return segments[index];
+    }
+
+    public boolean isSegmentFull(int index) {
+        return index < (size >>> SEGMENT_SHIFT);
+    }
+
+    /**
+     * Versión con los usuarios agregados al final. Sólo copia el arreglo de segmentos cuando se
+     * llena, duplicando su capacidad, por lo que cada usuario cuesta O(1) amortizado.
+     */
+    SegmentedUserList append(List<UserResponse> users) {
+        if (users.isEmpty()) {
+            return this;
+        }
+        UserResponse[][] next = segments;
+        int position = size;
+        for (UserResponse user : users) {
+            int segment = position >>> SEGMENT_SHIFT;
+            if (segment == next.length) {
+                next = Arrays.copyOf(next, Math.max(4, next.length * 2));
+            }
+            if (next[segment] == null) {
+                next[segment] = new UserResponse[SEGMENT_SIZE];
+            }
+            next[segment][position & SEGMENT_MASK] = user;
+            position++;
+        }
+        return new SegmentedUserList(next, position);
+    }
+
+    /**
+     * Versión con los usuarios de las posiciones indicadas reemplazados. Copia el arreglo de
+     * segmentos y cada segmento tocado, nunca la lista completa.
+     */
+    SegmentedUserList replace(Map<Integer, UserResponse> replacements) {
+        if (replacements.isEmpty()) {
+            return this;
+        }
+        UserResponse[][] next = segments.clone();
+        boolean[] copied = new boolean[segmentCount()];
+        for (Map.Entry<Integer, UserResponse> replacement : replacements.entrySet()) {
+            int position = replacement.getKey();
+            if (position < 0 || position >= size) {
+                throw new IndexOutOfBoundsException("Índice: " + position + ", tamaño: " + size);
+            }
+            int segment = position >>> SEGMENT_SHIFT;
+            if (!copied[segment]) {
+                next[segment] = next[segment].clone();
+                copied[segment] = true;
+            }
+            next[segment][position & SEGMENT_MASK] = replacement.getValue();
+        }
+        return new SegmentedUserList(next, size);
+    }
+}
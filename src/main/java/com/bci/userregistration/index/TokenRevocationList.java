@@ -0,0 +1,88 @@
+package com.bci.userregistration.index;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Ids ({@code jti}) de tokens revocados, agrupados por la hora en que expira el token
+ * ({@code jwt.revocation.bucket-minutes}). Cada grupo es un {@link UuidHashSet}, así que consultar
+ * un token es buscar su grupo por {@code exp} y una búsqueda en una tabla de primitivos, sin base
+ * de datos. Cuando todos los tokens de un grupo ya expiraron el grupo completo se descarta: la lista
+ * sólo guarda revocaciones que todavía importan. Vive en memoria y se pierde al reiniciar.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final long bucketMillis;
+    private final LongSupplier clock;
+    private final ConcurrentSkipListMap<Long, UuidHashSet> buckets = new ConcurrentSkipListMap<>();
+
+    private volatile long nextPruneAt;
+
+    @Autowired
+    public TokenRevocationList(@Value("${jwt.revocation.bucket-minutes:60}") long bucketMinutes) {
+        this(TimeUnit.MINUTES.toMillis(bucketMinutes), System::currentTimeMillis);
+    }
+
+    TokenRevocationList(long bucketMillis, LongSupplier clock) {
+        this.bucketMillis = bucketMillis;
+        this.clock = clock;
+    }
+
+    public void revoke(UUID tokenId, long expiresAtMillis) {
+        long now = clock.getAsLong();
+        pruneIfDue(now);
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        buckets.computeIfAbsent(bucket(expiresAtMillis), key -> new UuidHashSet()).add(tokenId);
+    }
+
+    public boolean isRevoked(UUID tokenId, long expiresAtMillis) {
+        pruneIfDue(clock.getAsLong());
+        UuidHashSet revoked = buckets.get(bucket(expiresAtMillis));
+        return revoked != null && revoked.contains(tokenId);
+    }
+
+    public int size() {
+        int size = 0;
+        for (UuidHashSet revoked : buckets.values()) {
+            size += revoked.size();
+        }
+        return size;
+    }
+
+    public long memoryBytes() {
+        long bytes = 0;
+        for (UuidHashSet revoked : buckets.values()) {
+            bytes += revoked.memoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Descarta los grupos cuyo rango de expiración terminó antes de {@code now}.
+     */
+    public void prune(long now) {
+        Map<Long, UuidHashSet> expired = buckets.headMap(bucket(now));
+        expired.clear();
+        nextPruneAt = (bucket(now) + 1) * bucketMillis;
+    }
+
+    private void pruneIfDue(long now) {
+        if (now >= nextPruneAt) {
+            prune(now);
+        }
+    }
+
+    private long bucket(long millis) {
+        return Math.floorDiv(millis, bucketMillis);
+    }
+}
@@ -0,0 +1,12 @@
+package com.bci.userregistration.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class UserListSnapshot {
+
+    private final long version;
+    private final SegmentedUserList users;
+}
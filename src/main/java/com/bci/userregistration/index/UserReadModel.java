@@ -0,0 +1,268 @@
+package com.bci.userregistration.index;
+
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.event.UserRegisteredEvent;
+import com.bci.userregistration.repository.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Copia en memoria de la lista de usuarios. Se carga al iniciar y cada registro confirmado agrega
+ * sus usuarios al confirmar la transacción. La lista es una {@link SegmentedUserList}: agregar no
+ * copia los usuarios anteriores y un {@code last_login} nuevo copia sólo el segmento del usuario,
+ * que se ubica por id. Los lectores siempre reciben una instantánea inmutable sin tocar la base de
+ * datos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserReadModel {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Object lock = new Object();
+    private final Object rebuildLock = new Object();
+
+    private volatile UserListSnapshot current = new UserListSnapshot(0, SegmentedUserList.EMPTY);
+    private volatile boolean ready;
+
+    // Posición de cada usuario en la lista actual; se usa con lock tomado
+    private final Map<UUID, Integer> positions = new HashMap<>();
+
+    // Registros confirmados mientras se recarga desde la base de datos; se mezclan al terminar
+    private List<UserResponse> committedDuringRebuild;
+    private Map<UUID, Date> lastLoginsDuringRebuild;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("users.read_model.size", this, model -> model.current.getUsers().size())
+                .description("Usuarios en la copia en memoria del listado").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<UserResponse> snapshot() {
+        return current.getUsers();
+    }
+
+    /**
+     * Lista y versión juntas; la versión cambia con cada registro confirmado y con cada recarga.
+     */
+    public UserListSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Recarga la copia desde la base de datos. Los registros confirmados durante la recarga no
+     * se pierden aunque la consulta no los haya visto.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            synchronized (lock) {
+                committedDuringRebuild = new ArrayList<>();
+                lastLoginsDuringRebuild = new HashMap<>();
+            }
+            List<UserResponse> loaded;
+            try {
+                loaded = userRepository.findAllResponses();
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    committedDuringRebuild = null;
+                    lastLoginsDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                List<UserResponse> users = new ArrayList<>(loaded.size() + committedDuringRebuild.size());
+                users.addAll(loaded);
+                Set<UUID> ids = new HashSet<>();
+                for (UserResponse user : loaded) {
+                    ids.add(user.getId());
+                }
+                for (UserResponse user : committedDuringRebuild) {
+                    if (ids.add(user.getId())) {
+                        users.add(user);
+                    }
+                }
+                positions.clear();
+                for (int i = 0; i < users.size(); i++) {
+                    positions.put(users.get(i).getId(), i);
+                }
+                SegmentedUserList list = withLastLogins(SegmentedUserList.of(users), lastLoginsDuringRebuild);
+                committedDuringRebuild = null;
+                lastLoginsDuringRebuild = null;
+                publish(list);
+                ready = true;
+            }
+            log.info("Listado de usuarios cargado en memoria con {} registros en {} ms",
+                    current.getUsers().size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Se ejecuta dentro de la transacción del registro: acumula los usuarios de la transacción y
+     * los publica una sola vez al confirmarla, de modo que un lote no copia la lista por usuario.
+     */
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(Collections.singletonList(event.getUser()));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<UserResponse> pending = (List<UserResponse>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<UserResponse> users = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, users);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(users);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserReadModel.this);
+                }
+            });
+            pending = users;
+        }
+        pending.add(event.getUser());
+    }
+
+    /**
+     * Aplica los {@code last_login} ya escritos por {@link com.bci.userregistration.service.LastLoginBuffer}.
+     * Sólo publica una nueva versión si algún usuario cambió.
+     */
+    public void applyLastLogins(Map<UUID, Date> lastLogins) {
+        synchronized (lock) {
+            if (lastLoginsDuringRebuild != null) {
+                lastLoginsDuringRebuild.putAll(lastLogins);
+            }
+            if (!ready) {
+                return;
+            }
+            SegmentedUserList previous = current.getUsers();
+            SegmentedUserList next = withLastLogins(previous, lastLogins);
+            if (next != previous) {
+                publish(next);
+            }
+        }
+    }
+
+    /**
+     * Compara la copia en memoria con la base de datos. Un registro confirmado entre la lectura
+     * de la copia y la consulta puede aparecer como faltante hasta la siguiente verificación.
+     */
+    public UserReadModelReport checkConsistency() {
+        List<UserResponse> cached = current.getUsers();
+        List<UserResponse> stored = userRepository.findAllResponses();
+
+        Map<UUID, UserResponse> byId = new HashMap<>(cached.size() * 2);
+        for (UserResponse user : cached) {
+            byId.put(user.getId(), user);
+        }
+        int missing = 0;
+        int mismatched = 0;
+        for (UserResponse user : stored) {
+            UserResponse inMemory = byId.remove(user.getId());
+            if (inMemory == null) {
+                missing++;
+            } else if (!sameContent(inMemory, user)) {
+                mismatched++;
+            }
+        }
+        return new UserReadModelReport(ready, cached.size(), stored.size(), missing, byId.size(), mismatched);
+    }
+
+    // Antes de la primera carga no se agregan: la carga lee estos usuarios desde la base de datos
+    private void append(List<UserResponse> users) {
+        synchronized (lock) {
+            if (committedDuringRebuild != null) {
+                committedDuringRebuild.addAll(users);
+            }
+            if (!ready) {
+                return;
+            }
+            SegmentedUserList previous = current.getUsers();
+            int position = previous.size();
+            for (UserResponse user : users) {
+                positions.put(user.getId(), position++);
+            }
+            publish(previous.append(users));
+        }
+    }
+
+    // Llamar con lock tomado
+    private void publish(SegmentedUserList users) {
+        current = new UserListSnapshot(current.getVersion() + 1, users);
+    }
+
+    // Llamar con lock tomado. La misma lista si ningún usuario tiene un last_login más reciente en lastLogins
+    private SegmentedUserList withLastLogins(SegmentedUserList users, Map<UUID, Date> lastLogins) {
+        Map<Integer, UserResponse> changed = new HashMap<>();
+        for (Map.Entry<UUID, Date> login : lastLogins.entrySet()) {
+            Integer position = positions.get(login.getKey());
+            if (position == null) {
+                continue;
+            }
+            UserResponse user = users.get(position);
+            Date loginAt = login.getValue();
+            if (user.getLastLogin() == null || user.getLastLogin().getTime() < loginAt.getTime()) {
+                changed.put(position, UserResponse.builder()
+                        .id(user.getId())
+                        .created(user.getCreated())
+                        .modified(user.getModified())
+                        .lastLogin(loginAt)
+                        .token(user.getToken())
+                        .isActive(user.getIsActive())
+                        .build());
+            }
+        }
+        return users.replace(changed);
+    }
+
+    private static boolean sameContent(UserResponse a, UserResponse b) {
+        return sameInstant(a.getCreated(), b.getCreated())
+                && sameInstant(a.getModified(), b.getModified())
+                && sameInstant(a.getLastLogin(), b.getLastLogin())
+                && Objects.equals(a.getToken(), b.getToken())
+                && Objects.equals(a.getIsActive(), b.getIsActive());
+    }
+
+    // Date.equals no es simétrico con java.sql.Timestamp, que es lo que devuelve Hibernate
+    private static boolean sameInstant(Date a, Date b) {
+        return a == null ? b == null : b != null && a.getTime() == b.getTime();
+    }
+}
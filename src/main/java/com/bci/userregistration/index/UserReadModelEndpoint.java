@@ -0,0 +1,31 @@
+package com.bci.userregistration.index;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/userreadmodel} verifica la copia en memoria contra la base de datos y
+ * {@code POST /actuator/userreadmodel} la reconstruye.
+ */
+@Component
+@Endpoint(id = "userreadmodel")
+@RequiredArgsConstructor
+public class UserReadModelEndpoint {
+
+    private final UserReadModel userReadModel;
+
+    @ReadOperation
+    public UserReadModelReport check() {
+        return userReadModel.checkConsistency();
+    }
+
+    @WriteOperation
+    public UserReadModelReport rebuild() {
+        userReadModel.rebuild();
+        return userReadModel.checkConsistency();
+    }
+}
@@ -0,0 +1,20 @@
+package com.bci.userregistration.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class UserReadModelReport {
+
+    private final boolean ready;
+    private final int size;
+    private final int databaseSize;
+    private final int missing;
+    private final int unexpected;
+    private final int mismatched;
+
+    public boolean isConsistent() {
+        return ready && missing == 0 && unexpected == 0 && mismatched == 0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.bci.userregistration.index;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Conjunto de UUID sobre un único {@code long[]} con direccionamiento abierto: 16 bytes por entrada
+ * más el espacio libre de la tabla, sin un objeto por elemento. Las escrituras son exclusivas y las
+ * lecturas optimistas ({@link StampedLock}), así que {@link #contains} no toma locks mientras no
+ * haya una escritura en curso. El par {@code (0, 0)} marca una celda vacía y no se puede agregar.
+ */
+public class UuidHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Pares (most, least) consecutivos; la capacidad en entradas es table.length / 2
+    private long[] table;
+    private int size;
+
+    public UuidHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public UuidHashSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        this.table = new long[capacity * 2];
+    }
+
+    /**
+     * @return {@code true} si el UUID no estaba en el conjunto
+     */
+    public boolean add(UUID value) {
+        long most = value.getMostSignificantBits();
+        long least = value.getLeastSignificantBits();
+        if (most == 0 && least == 0) {
+            throw new IllegalArgumentException("El UUID 00000000-0000-0000-0000-000000000000 no se puede almacenar");
+        }
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) > (table.length / 2) * 3 / 4) {
+                table = rehash(table, table.length * 2);
+            }
+            if (!insert(table, most, least)) {
+                return false;
+            }
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean contains(UUID value) {
+        long most = value.getMostSignificantBits();
+        long least = value.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        boolean found = find(table, most, least);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(table, most, least);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes ocupados por la tabla.
+     */
+    public long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return table.length * 8L;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Con lecturas optimistas la tabla puede cambiar mientras se recorre: el recorrido está acotado
+    // por la capacidad y el resultado se descarta si validate falla
+    private static boolean find(long[] table, long most, long least) {
+        int mask = table.length / 2 - 1;
+        int slot = slot(most, least, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            long storedMost = table[slot * 2];
+            long storedLeast = table[slot * 2 + 1];
+            if (storedMost == most && storedLeast == least) {
+                return true;
+            }
+            if (storedMost == 0 && storedLeast == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private static boolean insert(long[] table, long most, long least) {
+        int mask = table.length / 2 - 1;
+        int slot = slot(most, least, mask);
+        while (true) {
+            long storedMost = table[slot * 2];
+            long storedLeast = table[slot * 2 + 1];
+            if (storedMost == most && storedLeast == least) {
+                return false;
+            }
+            if (storedMost == 0 && storedLeast == 0) {
+                table[slot * 2] = most;
+                table[slot * 2 + 1] = least;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static long[] rehash(long[] old, int length) {
+        long[] next = new long[length];
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0 || old[i + 1] != 0) {
+                insert(next, old[i], old[i + 1]);
+            }
+        }
+        return next;
+    }
+
+    private static int slot(long most, long least, int mask) {
+        long h = (most ^ Long.rotateLeft(least, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bci.userregistration.mapper;
+
+/**
+ * Normaliza teléfonos al formato E.164 ({@code +<código país><código área><número>}, hasta 15
+ * dígitos) para guardarlos y buscarlos por igualdad exacta.
+ */
+public final class PhoneNormalizer {
+
+    private static final int MAX_DIGITS = 15;
+
+    private PhoneNormalizer() {
+    }
+
+    /**
+     * Arma el E.164 a partir de los campos del registro. Retorna {@code null} si no hay código de
+     * país o número, o si el resultado supera 15 dígitos.
+     */
+    public static String toE164(String contrycode, String citycode, String number) {
+        String country = stripLeadingZeros(digits(contrycode));
+        // El 0 inicial del código de área es prefijo de marcación nacional, no parte del E.164
+        String city = stripLeadingZeros(digits(citycode));
+        String subscriber = digits(number);
+        if (country.isEmpty() || subscriber.isEmpty()) {
+            return null;
+        }
+        return withPlus(country + city + subscriber);
+    }
+
+    /**
+     * Acepta un número internacional con {@code +} o {@code 00} y cualquier separador
+     * ({@code "+56 9 1234-5678"}, {@code "0056912345678"}). Retorna {@code null} si no lo es.
+     */
+    public static String parseE164(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String trimmed = phone.trim();
+        String digits = digits(trimmed);
+        if (!trimmed.startsWith("+")) {
+            if (!digits.startsWith("00")) {
+                return null;
+            }
+            digits = digits.substring(2);
+        }
+        if (digits.isEmpty() || digits.charAt(0) == '0') {
+            return null;
+        }
+        return withPlus(digits);
+    }
+
+    private static String withPlus(String digits) {
+        return digits.length() > MAX_DIGITS ? null : "+" + digits;
+    }
+
+    private static String digits(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static String stripLeadingZeros(String digits) {
+        int start = 0;
+        while (start < digits.length() && digits.charAt(start) == '0') {
+            start++;
+        }
+        return digits.substring(start);
+    }
+}
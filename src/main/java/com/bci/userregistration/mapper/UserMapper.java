@@ -0,0 +1,73 @@
+package com.bci.userregistration.mapper;
+
+import com.bci.userregistration.dto.PhoneDTO;
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.entity.Phone;
+import com.bci.userregistration.entity.PhoneNumber;
+import com.bci.userregistration.entity.PhoneStorage;
+import com.bci.userregistration.entity.User;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+@Component
+public class UserMapper {
+
+    @Value("${users.phones.storage:TABLE}")
+    private PhoneStorage phoneStorage = PhoneStorage.TABLE;
+
+    public User buildUser(UserRegistrationRequest request, UUID userId, String token, String passwordHash) {
+        return User.builder()
+        		.id(userId)
+                .name(request.getName())
+                .email(request.getEmail())
+                .password(passwordHash)
+                .token(token)
+                .isActive(true)
+                .phones(new ArrayList<>())
+                .build();
+    }
+
+    public void addPhonesToUser(User user, UserRegistrationRequest request) {
+        if (request.getPhones() != null && !request.getPhones().isEmpty()) {
+            for (PhoneDTO phoneDTO : request.getPhones()) {
+                String e164 = PhoneNormalizer.toE164(
+                        phoneDTO.getContrycode(), phoneDTO.getCitycode(), phoneDTO.getNumber());
+                if (phoneStorage == PhoneStorage.INLINE) {
+                    user.getInlinePhones().add(PhoneNumber.builder()
+                            .number(phoneDTO.getNumber())
+                            .citycode(phoneDTO.getCitycode())
+                            .contrycode(phoneDTO.getContrycode())
+                            .e164(e164)
+                            .build());
+                    if (e164 != null) {
+                        user.getInlinePhoneE164s().add(e164);
+                    }
+                } else {
+                    Phone phone = Phone.builder()
+                            .number(phoneDTO.getNumber())
+                            .citycode(phoneDTO.getCitycode())
+                            .contrycode(phoneDTO.getContrycode())
+                            .e164(e164)
+                            .build();
+                    user.addPhone(phone);
+                }
+            }
+        }
+    }
+
+    public UserResponse buildUserResponse(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .created(user.getCreated())
+                .modified(user.getModified())
+                .lastLogin(user.getLastLogin())
+                .token(user.getToken())
+                .isActive(user.getIsActive())
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.bci.userregistration.metrics;
+
+import com.bci.userregistration.controller.UserController;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marca el inicio de la serialización JSON de las respuestas de {@link UserController};
+ * {@link UserMetricsInterceptor} cierra la medición al completar la petición.
+ */
+@ControllerAdvice(assignableTypes = UserController.class)
+@RequiredArgsConstructor
+public class JsonWriteTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final UserMetrics metrics;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        metrics.markJsonStarted();
+        return body;
+    }
+}
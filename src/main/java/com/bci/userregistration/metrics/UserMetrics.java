@@ -0,0 +1,154 @@
+package com.bci.userregistration.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers y contadores de registro, listado y JWT. Todos se registran al crear el bean; los
+ * métodos {@code record*} sólo reciben nanosegundos medidos con {@link System#nanoTime()} para
+ * no asignar objetos en el camino crítico.
+ */
+@Component
+public class UserMetrics {
+
+    private final Timer registrationValidation;
+    private final Timer registrationHash;
+    private final Timer registrationToken;
+    private final Timer registrationPersist;
+    private final Timer registrationMapping;
+    private final Timer registrationJson;
+    private final Timer listQuery;
+    private final Timer listJson;
+    private final Timer jwtVerify;
+    private final Counter jwtCacheHits;
+    private final Counter jwtCacheMisses;
+    private final Counter created;
+    private final Counter badRequest;
+    private final Counter conflict;
+    private final Counter tooManyRequests;
+    private final Counter unavailable;
+    private final Counter serverError;
+    private final Counter otherOutcome;
+
+    private final ThreadLocal<long[]> jsonStartedAt = ThreadLocal.withInitial(() -> new long[1]);
+
+    public UserMetrics(MeterRegistry registry) {
+        registrationValidation = stageTimer(registry, "users.registration.stage", "validation");
+        registrationHash = stageTimer(registry, "users.registration.stage", "hash");
+        registrationToken = stageTimer(registry, "users.registration.stage", "token");
+        registrationPersist = stageTimer(registry, "users.registration.stage", "persist");
+        registrationMapping = stageTimer(registry, "users.registration.stage", "mapping");
+        registrationJson = stageTimer(registry, "users.registration.stage", "json");
+        listQuery = stageTimer(registry, "users.list.stage", "query");
+        listJson = stageTimer(registry, "users.list.stage", "json");
+        jwtVerify = timer("users.jwt.verify").register(registry);
+        jwtCacheHits = Counter.builder("users.jwt.verify.cache").tag("result", "hit").register(registry);
+        jwtCacheMisses = Counter.builder("users.jwt.verify.cache").tag("result", "miss").register(registry);
+        created = outcome(registry, "201");
+        badRequest = outcome(registry, "400");
+        conflict = outcome(registry, "409");
+        tooManyRequests = outcome(registry, "429");
+        unavailable = outcome(registry, "503");
+        serverError = outcome(registry, "500");
+        otherOutcome = outcome(registry, "other");
+    }
+
+    public void recordRegistrationValidation(long nanos) {
+        registrationValidation.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRegistrationHash(long nanos) {
+        registrationHash.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRegistrationToken(long nanos) {
+        registrationToken.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRegistrationPersist(long nanos) {
+        registrationPersist.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRegistrationMapping(long nanos) {
+        registrationMapping.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordListQuery(long nanos) {
+        listQuery.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJwtVerify(long nanos, boolean cacheHit) {
+        jwtVerify.record(nanos, TimeUnit.NANOSECONDS);
+        (cacheHit ? jwtCacheHits : jwtCacheMisses).increment();
+    }
+
+    public void markJsonStarted() {
+        jsonStartedAt.get()[0] = System.nanoTime();
+    }
+
+    // El advice marca todas las respuestas de UserController, pero sólo las rutas con interceptor
+    // consumen la marca; sin esto el hilo arrastraría la de una petición anterior
+    public void clearJsonStarted() {
+        jsonStartedAt.get()[0] = 0;
+    }
+
+    public void recordRegistrationJson() {
+        recordJson(registrationJson);
+    }
+
+    public void recordListJson() {
+        recordJson(listJson);
+    }
+
+    public void recordRegistrationOutcome(int status) {
+        switch (status) {
+            case 201:
+                created.increment();
+                break;
+            case 400:
+                badRequest.increment();
+                break;
+            case 409:
+                conflict.increment();
+                break;
+            case 429:
+                tooManyRequests.increment();
+                break;
+            case 503:
+                unavailable.increment();
+                break;
+            case 500:
+                serverError.increment();
+                break;
+            default:
+                otherOutcome.increment();
+        }
+    }
+
+    private void recordJson(Timer timer) {
+        long[] startedAt = jsonStartedAt.get();
+        if (startedAt[0] != 0) {
+            timer.record(System.nanoTime() - startedAt[0], TimeUnit.NANOSECONDS);
+            startedAt[0] = 0;
+        }
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String name, String stage) {
+        return timer(name).tag("stage", stage).register(registry);
+    }
+
+    private static Timer.Builder timer(String name) {
+        return Timer.builder(name)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram();
+    }
+
+    private static Counter outcome(MeterRegistry registry, String status) {
+        return Counter.builder("users.registration.outcome").tag("status", status).register(registry);
+    }
+}
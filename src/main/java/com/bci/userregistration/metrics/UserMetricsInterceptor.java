@@ -0,0 +1,35 @@
+package com.bci.userregistration.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Registra el tiempo de escritura JSON y, en los endpoints de registro, el código de respuesta.
+ * En las peticiones asíncronas {@code afterCompletion} sólo se ejecuta en el despacho final.
+ */
+@RequiredArgsConstructor
+public class UserMetricsInterceptor implements HandlerInterceptor {
+
+    private final UserMetrics metrics;
+    private final boolean registration;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        metrics.clearJsonStarted();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (registration) {
+            metrics.recordRegistrationJson();
+            metrics.recordRegistrationOutcome(response.getStatus());
+        } else {
+            metrics.recordListJson();
+        }
+    }
+}
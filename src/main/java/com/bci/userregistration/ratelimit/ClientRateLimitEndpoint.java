@@ -0,0 +1,27 @@
+package com.bci.userregistration.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/ratelimit} lista los clientes con más solicitudes de registro rechazadas.
+ */
+@Component
+@Endpoint(id = "ratelimit")
+@RequiredArgsConstructor
+public class ClientRateLimitEndpoint {
+
+    private static final int TOP_CLIENTS = 50;
+
+    private final ClientRateLimiter clientRateLimiter;
+
+    @ReadOperation
+    public List<ClientRateLimitStats> clients() {
+        return clientRateLimiter.topRejected(TOP_CLIENTS);
+    }
+}
@@ -0,0 +1,13 @@
+package com.bci.userregistration.ratelimit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ClientRateLimitStats {
+
+    private final String client;
+    private final long admitted;
+    private final long rejected;
+}
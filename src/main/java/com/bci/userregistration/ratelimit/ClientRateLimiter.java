@@ -0,0 +1,147 @@
+package com.bci.userregistration.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Límite de solicitudes por cliente para el registro. Cada cliente tiene su propio {@link TokenBucket}
+ * ({@code registration.rate-limit.requests-per-second} con ráfagas de hasta {@code registration.rate-limit.burst}).
+ * El mapa de baldes se acota a {@code registration.rate-limit.max-clients}: al llenarse se descartan los baldes
+ * llenos (clientes inactivos) y, si aun así no hay espacio, los clientes nuevos comparten un balde de desborde
+ * para que una rotación de claves no pueda crecer el mapa ni saltarse el límite.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${registration.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${registration.rate-limit.requests-per-second:20}")
+    private double requestsPerSecond = 20;
+
+    @Value("${registration.rate-limit.burst:40}")
+    private int burst = 40;
+
+    @Value("${registration.rate-limit.max-clients:10000}")
+    private int maxClients = 10000;
+
+    private long emissionInterval;
+    private long burstTolerance;
+    private TokenBucket overflow;
+    private Counter admitted;
+    private Counter rejected;
+    private Counter overflowed;
+
+    @Autowired
+    public ClientRateLimiter(MeterRegistry meterRegistry) {
+        this(meterRegistry, System::nanoTime);
+    }
+
+    ClientRateLimiter(MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    void configure(double requestsPerSecond, int burst, int maxClients) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.maxClients = maxClients;
+    }
+
+    @PostConstruct
+    public void init() {
+        emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        burstTolerance = emissionInterval * burst;
+        overflow = new TokenBucket(nanoClock.getAsLong());
+        admitted = Counter.builder("registration.rate_limit.requests")
+                .description("Solicitudes de registro admitidas por el límite por cliente")
+                .tag("result", "admitted")
+                .register(meterRegistry);
+        rejected = Counter.builder("registration.rate_limit.requests")
+                .description("Solicitudes de registro rechazadas con 429")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        overflowed = Counter.builder("registration.rate_limit.overflow")
+                .description("Solicitudes de clientes sin espacio en el mapa, limitadas con el balde compartido")
+                .register(meterRegistry);
+        Gauge.builder("registration.rate_limit.clients", buckets, ConcurrentMap::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code 0} si la solicitud de {@code client} se admite; si no, los nanosegundos a esperar
+     */
+    public long tryAcquire(String client) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        long wait = bucketFor(client, now).tryAcquire(now, emissionInterval, burstTolerance);
+        (wait == 0 ? admitted : rejected).increment();
+        return wait;
+    }
+
+    /**
+     * Contadores de los clientes con más rechazos. Los clientes descartados por inactividad pierden sus contadores.
+     */
+    public List<ClientRateLimitStats> topRejected(int limit) {
+        return buckets.entrySet().stream()
+                .map(entry -> new ClientRateLimitStats(entry.getKey(),
+                        entry.getValue().getAdmitted(), entry.getValue().getRejected()))
+                .sorted(Comparator.comparingLong(ClientRateLimitStats::getRejected).reversed()
+                        .thenComparing(Comparator.comparingLong(ClientRateLimitStats::getAdmitted).reversed()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public int clientCount() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucketFor(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            evictIdle(now);
+            if (buckets.size() >= maxClients) {
+                overflowed.increment();
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(now));
+    }
+
+    private void evictIdle(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bci.userregistration.ratelimit;
+
+import com.bci.userregistration.exception.RateLimitExceededException;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica {@link ClientRateLimiter} antes de leer el cuerpo, de modo que una solicitud rechazada no llega a
+ * la validación ni a la base de datos. El cliente se identifica por la IP: un header como {@code X-API-Key}
+ * no está autenticado, y rotarlo daría una ráfaga nueva por valor y llenaría el mapa de baldes.
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final ClientRateLimiter clientRateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        long wait = clientRateLimiter.tryAcquire(clientOf(request));
+        if (wait > 0) {
+            long retryAfterSeconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new RateLimitExceededException("Demasiadas solicitudes, intente nuevamente más tarde", retryAfterSeconds);
+        }
+        return true;
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,55 @@
+package com.bci.userregistration.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin locks implementado como GCRA: en vez de contar tokens guarda el instante teórico
+ * ({@code theoreticalArrival}) en que el balde vuelve a estar lleno y lo avanza con CAS. Cada solicitud
+ * consume {@code emissionInterval} nanosegundos y se rechaza si adelantaría ese instante más de
+ * {@code burstTolerance} respecto de {@code now}.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return {@code 0} si la solicitud se admite; si no, los nanosegundos hasta que haya un token disponible
+     */
+    long tryAcquire(long now, long emissionInterval, long burstTolerance) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionInterval;
+            long allowAt = next - burstTolerance;
+            if (allowAt - now > 0) {
+                rejected.incrementAndGet();
+                return allowAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                admitted.incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Un balde lleno se comporta igual que uno nuevo, por lo que puede descartarse sin cambiar el resultado
+     * de las siguientes solicitudes del cliente.
+     */
+    boolean isFull(long now) {
+        return theoreticalArrival.get() - now <= 0;
+    }
+
+    long getAdmitted() {
+        return admitted.get();
+    }
+
+    long getRejected() {
+        return rejected.get();
+    }
+}
@@ -2,8 +2,17 @@ package com.bci.userregistration.repository;
 
 import com.bci.userregistration.entity.Phone;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.UUID;
+
 @Repository
 public interface PhoneRepository extends JpaRepository<Phone, Long> {
+
+    // Se resuelve sólo con idx_phones_e164_user, sin leer la tabla
+    @Query("select distinct p.user.id from Phone p where p.e164 = :e164")
+    List<UUID> findUserIdsByE164(@Param("e164") String e164);
 }
@@ -0,0 +1,22 @@
+package com.bci.userregistration.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Columnas necesarias para autenticar, sin cargar la entidad ni sus teléfonos.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserCredentials {
+
+    private final UUID id;
+    private final String email;
+    private final String password;
+    private final Date created;
+    private final Date modified;
+    private final Boolean isActive;
+}
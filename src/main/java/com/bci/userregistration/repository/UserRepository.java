@@ -1,14 +1,71 @@
 package com.bci.userregistration.repository;
 
+import com.bci.userregistration.dto.UserResponse;
 import com.bci.userregistration.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserSearchRepository {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select new com.bci.userregistration.repository.UserCredentials("
+            + "u.id, u.email, u.password, u.created, u.modified, u.isActive) from User u where u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+
+    // Proyección directa a UserResponse: no hidrata entidades, no toca phones y no hay dirty checking
+    String SELECT_USER_RESPONSE = "select new com.bci.userregistration.dto.UserResponse("
+            + "u.id, u.created, u.modified, u.lastLogin, u.token, u.isActive) from User u";
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query(SELECT_USER_RESPONSE + " order by u.id")
+    List<UserResponse> findAllResponses();
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query(SELECT_USER_RESPONSE + " order by u.id")
+    List<UserResponse> findResponsesPage(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query(SELECT_USER_RESPONSE + " where u.id > :after order by u.id")
+    List<UserResponse> findResponsesAfter(@Param("after") UUID after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query(SELECT_USER_RESPONSE + " where u.id in :ids order by u.id")
+    List<UserResponse> findResponsesByIds(@Param("ids") Collection<UUID> ids);
+
+    // Usuarios con teléfonos inline; se resuelve con idx_user_phone_e164_user
+    @Query("select distinct u.id from User u join u.inlinePhoneE164s e where e = :e164")
+    List<UUID> findIdsByInlinePhoneE164(@Param("e164") String e164);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query(SELECT_USER_RESPONSE + " order by u.id")
+    Stream<UserResponse> streamAllResponses();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,46 @@
+package com.bci.userregistration.repository;
+
+import com.bci.userregistration.dto.UserResponse;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Posición en el orden {@code (created, id)} de la búsqueda. Se transmite como
+ * {@code <created en milisegundos>_<id>}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserSearchCursor {
+
+    private final Date created;
+    private final UUID id;
+
+    public static UserSearchCursor after(UserResponse user) {
+        return new UserSearchCursor(user.getCreated(), user.getId());
+    }
+
+    /**
+     * Retorna {@code null} si el texto no es un cursor válido.
+     */
+    public static UserSearchCursor parse(String value) {
+        int separator = value.indexOf('_');
+        if (separator < 1) {
+            return null;
+        }
+        try {
+            long created = Long.parseLong(value.substring(0, separator));
+            return new UserSearchCursor(new Date(created), UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return created.getTime() + "_" + id;
+    }
+}
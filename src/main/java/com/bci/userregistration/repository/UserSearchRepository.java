@@ -0,0 +1,15 @@
+package com.bci.userregistration.repository;
+
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.dto.UserSearchCriteria;
+
+import java.util.List;
+
+public interface UserSearchRepository {
+
+    /**
+     * Usuarios que cumplen {@code criteria} ordenados por {@code (created, id)}, empezando después
+     * de {@code after} (o desde el principio si es {@code null}).
+     */
+    List<UserResponse> search(UserSearchCriteria criteria, UserSearchCursor after, int limit);
+}
@@ -0,0 +1,84 @@
+package com.bci.userregistration.repository;
+
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.dto.UserSearchCriteria;
+import com.bci.userregistration.entity.User;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserResponse> search(UserSearchCriteria criteria, UserSearchCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<User> user = query.from(User.class);
+        Path<UUID> id = user.get("id");
+        Path<Date> created = user.get("created");
+        Path<Date> lastLogin = user.get("lastLogin");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getActive() != null) {
+            predicates.add(cb.equal(user.get("isActive"), criteria.getActive()));
+        }
+        if (criteria.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(created, criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(created, criteria.getCreatedTo()));
+        }
+        if (criteria.getLastLoginFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(lastLogin, criteria.getLastLoginFrom()));
+        }
+        if (criteria.getLastLoginTo() != null) {
+            predicates.add(cb.lessThan(lastLogin, criteria.getLastLoginTo()));
+        }
+        if (criteria.getNamePrefix() != null && !criteria.getNamePrefix().isEmpty()) {
+            predicates.add(cb.like(user.get("name"), escapeLike(criteria.getNamePrefix()) + "%", LIKE_ESCAPE));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(created, after.getCreated()),
+                    cb.and(cb.equal(created, after.getCreated()), cb.greaterThan(id, after.getId()))));
+        }
+
+        query.select(cb.construct(UserResponse.class, id, created, user.get("modified"), lastLogin,
+                        user.get("token"), user.get("isActive")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(created), cb.asc(id));
+        return entityManager.createQuery(query)
+                .setHint(HINT_READONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.bci.userregistration.service;
+
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.dto.UserResponse;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Usuario de un lote o de una importación listo para guardar con {@link UserBulkWriter}: solicitud ya
+ * validada, id, token y hash de la contraseña. Después de guardar queda marcado como creado, con su
+ * respuesta, o como correo ya registrado; si el guardado falla ninguna de las dos marcas cambia.
+ */
+@Getter
+public class BulkUser {
+
+    private final UserRegistrationRequest request;
+
+    @Setter
+    private UUID userId;
+
+    @Setter
+    private String token;
+
+    @Setter
+    private String passwordHash;
+
+    private UserResponse created;
+    private boolean duplicate;
+
+    public BulkUser(UserRegistrationRequest request) {
+        this.request = request;
+    }
+
+    public String getEmail() {
+        return request.getEmail();
+    }
+
+    void markCreated(UserResponse response) {
+        this.created = response;
+    }
+
+    void markDuplicate() {
+        this.duplicate = true;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bci.userregistration.service;
+
+import com.bci.userregistration.dto.LoginRequest;
+import com.bci.userregistration.dto.UserResponse;
+
+public interface ILoginService {
+    UserResponse login(LoginRequest request);
+    void logout(String token);
+}
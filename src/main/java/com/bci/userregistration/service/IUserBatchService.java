@@ -0,0 +1,10 @@
+package com.bci.userregistration.service;
+
+import java.util.List;
+
+import com.bci.userregistration.dto.BatchRegistrationResponse;
+import com.bci.userregistration.dto.UserRegistrationRequest;
+
+public interface IUserBatchService {
+    BatchRegistrationResponse registerUsers(List<UserRegistrationRequest> requests);
+}
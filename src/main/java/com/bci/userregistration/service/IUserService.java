@@ -1,11 +1,19 @@
 package com.bci.userregistration.service;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 import com.bci.userregistration.dto.UserRegistrationRequest;
 import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.dto.UserSearchCriteria;
 
 public interface IUserService {
 	List<UserResponse> findAll();
+    List<UserResponse> findPage(UUID after, Integer limit);
+    void streamAll(Consumer<UserResponse> consumer);
+    List<UserResponse> findByPhone(String phone, String citycode, String contrycode);
+    List<UserResponse> search(UserSearchCriteria criteria, String after, Integer limit);
     UserResponse registerUser(UserRegistrationRequest request);
+    int resolvePageLimit(Integer limit);
 }
@@ -0,0 +1,185 @@
+package com.bci.userregistration.service;
+
+import com.bci.userregistration.exception.DuplicateEmailException;
+import com.bci.userregistration.exception.IdempotencyKeyConflictException;
+import com.bci.userregistration.exception.ValidationException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Resultados de registro indexados por {@code Idempotency-Key}. Las solicitudes concurrentes con la misma
+ * clave esperan la misma ejecución en curso en vez de repetirla. Se guardan las respuestas exitosas y los
+ * errores del cliente (400/409); cualquier otro error libera la clave para que el reintento vuelva a ejecutar.
+ * La capacidad es acotada y cada entrada expira tras {@code registration.idempotency.ttl-seconds}.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    @Value("${registration.idempotency.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    @Value("${registration.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds = 86400;
+
+    private final Counter replays;
+    private final Counter conflicts;
+
+    @Autowired
+    public IdempotencyCache(MeterRegistry meterRegistry) {
+        this(meterRegistry, System::nanoTime);
+    }
+
+    IdempotencyCache(MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.replays = Counter.builder("registration.idempotency.replays")
+                .description("Solicitudes resueltas con una respuesta ya calculada para la misma Idempotency-Key")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("registration.idempotency.conflicts")
+                .description("Solicitudes rechazadas por reutilizar una Idempotency-Key con otro cuerpo")
+                .register(meterRegistry);
+        Gauge.builder("registration.idempotency.size", this, IdempotencyCache::size)
+                .register(meterRegistry);
+    }
+
+    void configure(int maxEntries, long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * Ejecuta {@code work} una sola vez por clave. Si la clave ya existe se retorna (o se relanza) el resultado
+     * guardado, esperando si la primera ejecución aún está en curso.
+     *
+     * @throws IdempotencyKeyConflictException si la clave se usó con una solicitud de distinta huella
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String key, String fingerprint, Supplier<T> work) {
+        long now = nanoClock.getAsLong();
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            evictExpired(now);
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(fingerprint, now + TimeUnit.SECONDS.toNanos(ttlSeconds));
+                entries.put(key, entry);
+                evictOverflow();
+                owner = true;
+            }
+        }
+
+        if (!entry.fingerprint.equals(fingerprint)) {
+            conflicts.increment();
+            throw new IdempotencyKeyConflictException(
+                    "La Idempotency-Key ya fue usada con una solicitud distinta");
+        }
+        if (owner) {
+            return new Outcome<>(run(key, entry, work), false);
+        }
+
+        replays.increment();
+        try {
+            return new Outcome<>((T) entry.result.join(), true);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    private <T> T run(String key, Entry entry, Supplier<T> work) {
+        try {
+            T value = work.get();
+            entry.result.complete(value);
+            return value;
+        } catch (ValidationException | DuplicateEmailException e) {
+            entry.result.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (now - eldest.expiresAtNanos < 0) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAtNanos;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAtNanos) {
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * Resultado de {@link #execute}; {@code replayed} indica que proviene de una ejecución anterior o concurrente.
+     */
+    public static final class Outcome<T> {
+        private final T value;
+        private final boolean replayed;
+
+        private Outcome(T value, boolean replayed) {
+            this.value = value;
+            this.replayed = replayed;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package com.bci.userregistration.service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.bci.userregistration.index.TokenRevocationList;
+import com.bci.userregistration.metrics.UserMetrics;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -21,27 +31,48 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Cada franja del caché de tokens verificados tiene su propio lock
+    private static final int VERIFIED_CACHE_STRIPES = 16;
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize = 10000;
+
+    private final UserMetrics metrics;
+    private final TokenRevocationList revocationList;
+
+    private Key signingKey;
+    private JwtParser parser;
+    private StripedLruCache<String, VerifiedToken> verifiedTokens;
+
+    public JwtService(UserMetrics metrics, TokenRevocationList revocationList) {
+        this.metrics = metrics;
+        this.revocationList = revocationList;
+    }
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = new StripedLruCache<>(verifiedCacheMaxSize, VERIFIED_CACHE_STRIPES);
     }
 
     public String generateToken(String email, UUID userId) {
         Date now = new Date();
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .claim("userId", userId.toString())
                 .setIssuedAt(now)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(now.getTime() + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-    
+
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            verify(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -49,12 +80,135 @@ public class JwtService {
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return verify(token).getSubject();
+    }
+
+    /**
+     * Revoca un token válido hasta su expiración. Revocar un token ya revocado no tiene efecto.
+     *
+     * @throws JwtException si el token no es válido o ya expiró
+     */
+    public void revoke(String token) {
+        VerifiedToken verified = parse(token);
+        revocationList.revoke(verified.getId(), verified.getExpiresAtMillis());
+        verifiedTokens.remove(token);
+    }
+
+    private VerifiedToken verify(String token) {
+        VerifiedToken verified = parse(token);
+        if (revocationList.isRevoked(verified.getId(), verified.getExpiresAtMillis())) {
+            throw new JwtException("El token fue revocado");
+        }
+        return verified;
+    }
+
+    private VerifiedToken parse(String token) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null && !cached.isExpired(now)) {
+            metrics.recordJwtVerify(System.nanoTime() - start, true);
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        // Los tokens sin jti o sin exp no se pueden revocar ni expiran: se rechazan
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            throw new JwtException("El token no incluye jti y exp");
+        }
+        VerifiedToken verified = new VerifiedToken(UUID.fromString(claims.getId()), claims.getSubject(),
+                claims.getExpiration());
+        verifiedTokens.put(token, verified);
+        metrics.recordJwtVerify(System.nanoTime() - start, false);
+        return verified;
+    }
+
+    private static final class VerifiedToken {
+        private final UUID id;
+        private final String subject;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(UUID id, String subject, Date expiresAt) {
+            this.id = id;
+            this.subject = subject;
+            this.expiresAtMillis = expiresAt.getTime();
+        }
+
+        private UUID getId() {
+            return id;
+        }
+
+        private String getSubject() {
+            return subject;
+        }
+
+        private long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        private boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    /**
+     * LRU acotado repartido en franjas por hash de la clave, cada una con su propio lock: como un
+     * {@code get} en orden de acceso modifica la lista, un único mapa sincronizado serializa todas
+     * las verificaciones. El máximo se reparte entre las franjas, así que el desalojo es LRU por franja.
+     */
+    private static final class StripedLruCache<K, V> {
+
+        private final LruMap<K, V>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        private StripedLruCache(int maxSize, int stripeCount) {
+            stripes = new LruMap[stripeCount];
+            int stripeSize = Math.max(1, (maxSize + stripeCount - 1) / stripeCount);
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new LruMap<>(stripeSize);
+            }
+        }
+
+        private V get(K key) {
+            LruMap<K, V> stripe = stripe(key);
+            synchronized (stripe) {
+                return stripe.get(key);
+            }
+        }
+
+        private void put(K key, V value) {
+            LruMap<K, V> stripe = stripe(key);
+            synchronized (stripe) {
+                stripe.put(key, value);
+            }
+        }
+
+        private void remove(K key) {
+            LruMap<K, V> stripe = stripe(key);
+            synchronized (stripe) {
+                stripe.remove(key);
+            }
+        }
+
+        private LruMap<K, V> stripe(K key) {
+            int hash = key.hashCode();
+            return stripes[((hash ^ (hash >>> 16)) & 0x7fffffff) % stripes.length];
+        }
+    }
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
     }
 
 }
@@ -0,0 +1,192 @@
+package com.bci.userregistration.service;
+
+import com.bci.userregistration.index.UserReadModel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Buffer de escritura diferida para {@code users.last_login}. Cada login sólo guarda en memoria el
+ * último instante por usuario; cada {@code users.last-login.flush-interval-ms} los pendientes se
+ * escriben con un único {@code UPDATE} en batch JDBC. La actualización va directo a la tabla, por lo
+ * que no dispara {@code @PreUpdate} ni cambia {@code modified}, y nunca retrocede un {@code last_login}
+ * más reciente. Al apagar la aplicación se vacía el buffer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastLoginBuffer {
+
+    private static final String UPDATE_LAST_LOGIN =
+            "update users set last_login = ? where id = ? and last_login < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserReadModel userReadModel;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${users.last-login.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${users.last-login.batch-size:500}")
+    private int batchSize;
+
+    private final ConcurrentHashMap<UUID, Long> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private ScheduledExecutorService scheduler;
+    private Counter recorded;
+    private Counter written;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        recorded = Counter.builder("users.last_login.recorded")
+                .description("Logins registrados en el buffer")
+                .register(meterRegistry);
+        written = Counter.builder("users.last_login.written")
+                .description("Filas de users actualizadas al vaciar el buffer")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("users.last_login.flush")
+                .description("Duración de cada escritura del buffer de last_login")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("users.last_login.pending", pending, Map::size)
+                .description("Usuarios con un last_login pendiente de escribir")
+                .register(meterRegistry);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "last-login-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Guarda el login sin tocar la base de datos; varios logins del mismo usuario entre dos escrituras
+     * se reducen al más reciente.
+     */
+    public void record(UUID userId, Date loginAt) {
+        pending.merge(userId, loginAt.getTime(), Math::max);
+        recorded.increment();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Escribe los pendientes y retorna las filas actualizadas. Si la escritura falla los instantes vuelven
+     * al buffer para el siguiente intento.
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            Map<UUID, Long> drained = drain();
+            if (drained.isEmpty()) {
+                return 0;
+            }
+            long start = System.nanoTime();
+            int updated = 0;
+            try {
+                List<Object[]> batch = new ArrayList<>(Math.min(batchSize, drained.size()));
+                for (Map.Entry<UUID, Long> entry : drained.entrySet()) {
+                    Timestamp loginAt = new Timestamp(entry.getValue());
+                    batch.add(new Object[]{loginAt, toBytes(entry.getKey()), loginAt});
+                    if (batch.size() == batchSize) {
+                        updated += sum(jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch));
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    updated += sum(jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch));
+                }
+            } catch (RuntimeException e) {
+                drained.forEach((id, loginAt) -> pending.merge(id, loginAt, Math::max));
+                throw e;
+            } finally {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            written.increment(updated);
+            userReadModel.applyLastLogins(toDates(drained));
+            return updated;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        int updated = flush();
+        log.info("Buffer de last_login vaciado al apagar: {} filas actualizadas", updated);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo escribir el buffer de last_login, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    // remove() por entrada: un login que llega durante la escritura queda para la siguiente
+    private Map<UUID, Long> drain() {
+        Map<UUID, Long> drained = new HashMap<>();
+        Iterator<UUID> ids = pending.keySet().iterator();
+        while (ids.hasNext()) {
+            UUID id = ids.next();
+            Long loginAt = pending.remove(id);
+            if (loginAt != null) {
+                drained.put(id, loginAt);
+            }
+        }
+        return drained;
+    }
+
+    private static Map<UUID, Date> toDates(Map<UUID, Long> drained) {
+        Map<UUID, Date> dates = new HashMap<>(drained.size() * 2);
+        drained.forEach((id, loginAt) -> dates.put(id, new Date(loginAt)));
+        return dates;
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    // Mismo formato de 16 bytes con el que Hibernate guarda el UUID en la columna binary(16) de users.id;
+    // con otro largo el where no calza con ninguna fila y el update escribe 0 filas sin error
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,319 @@
+package com.bci.userregistration.service;
+
+import com.bci.userregistration.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hash de contraseñas con PBKDF2-HMAC-SHA256 en un pool propio del tamaño de los núcleos
+ * ({@code users.password.hash.pool-size}, 0 = núcleos disponibles), para que un hash lento no
+ * sobrecargue la CPU ni se ejecute con una transacción abierta. Al iniciar se calibran las
+ * iteraciones para que un hash tarde {@code users.password.hash.target-ms}; cada hash guarda sus
+ * iteraciones, así que recalibrar no invalida las contraseñas existentes. Con la cola llena se
+ * rechaza con {@link ServiceOverloadedException}.
+ *
+ * <p>Los lotes ({@link #hashAll}) ocupan a lo sumo {@code users.password.hash.bulk-threads} hilos del pool
+ * (0 = uno menos que el pool, mínimo 1) y envían un hash por tarea: un registro o login en línea siempre
+ * encuentra un hilo libre, o espera a lo sumo un hash de lote, en vez de quedar detrás de un lote entero.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordHasher {
+
+    public static final String PREFIX = "pbkdf2-sha256";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int CALIBRATION_ITERATIONS = 10000;
+    private static final int CALIBRATION_ROUNDS = 5;
+    private static final int MAX_ITERATIONS = 10_000_000;
+
+    private final MeterRegistry meterRegistry;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${users.password.hash.pool-size:0}")
+    private int poolSize;
+
+    @Value("${users.password.hash.queue-capacity:200}")
+    private int queueCapacity = 200;
+
+    @Value("${users.password.hash.bulk-threads:0}")
+    private int bulkThreads;
+
+    @Value("${users.password.hash.target-ms:50}")
+    private long targetMillis = 50;
+
+    @Value("${users.password.hash.min-iterations:10000}")
+    private int minIterations = 10000;
+
+    // Mayor que 0 fija las iteraciones y omite la calibración
+    @Value("${users.password.hash.iterations:0}")
+    private int fixedIterations;
+
+    @Value("${registration.async.retry-after-seconds:1}")
+    private long retryAfterSeconds = 1;
+
+    private volatile int iterations;
+    private volatile String dummyHash;
+    private ThreadPoolExecutor executor;
+    private Semaphore bulkPermits;
+    private int bulkLimit;
+    private Timer bulkWait;
+    private Timer hashTimer;
+    private Timer queueWait;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        bulkLimit = bulkThreads > 0 ? Math.min(bulkThreads, threads) : Math.max(1, threads - 1);
+        bulkPermits = new Semaphore(bulkLimit);
+
+        hashTimer = Timer.builder("users.password.hash")
+                .description("Duración de cada hash o verificación de contraseña; el conteo por segundo es el throughput")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        queueWait = Timer.builder("users.password.hash.queue.wait")
+                .description("Tiempo que un hash espera en cola antes de ejecutarse")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        rejected = Counter.builder("users.password.hash.rejected")
+                .description("Hashes rechazados con 503 por cola llena")
+                .register(meterRegistry);
+        Gauge.builder("users.password.hash.pool.size", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .register(meterRegistry);
+        Gauge.builder("users.password.hash.pool.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("users.password.hash.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("users.password.hash.queue.remaining", executor, pool -> pool.getQueue().remainingCapacity())
+                .register(meterRegistry);
+        Gauge.builder("users.password.hash.iterations", this, PasswordHasher::getIterations)
+                .register(meterRegistry);
+        bulkWait = Timer.builder("users.password.hash.bulk.wait")
+                .description("Tiempo que un hash de lote espera un hilo libre de la parte reservada a lotes")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("users.password.hash.bulk.limit", this, hasher -> hasher.bulkLimit)
+                .description("Hilos del pool que pueden ocupar los lotes e importaciones")
+                .register(meterRegistry);
+        Gauge.builder("users.password.hash.bulk.in_flight", this, hasher -> hasher.bulkLimit - hasher.bulkPermits.availablePermits())
+                .description("Hashes de lote en cola o en ejecución; igual a bulk.limit cuando la parte está saturada")
+                .register(meterRegistry);
+        Gauge.builder("users.password.hash.bulk.waiting", this, hasher -> hasher.bulkPermits.getQueueLength())
+                .description("Hilos de lote bloqueados esperando un hilo de hash")
+                .register(meterRegistry);
+
+        iterations = fixedIterations > 0 ? fixedIterations : calibrate();
+        dummyHash = encode("", newSalt(), iterations);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Hash válido de una contraseña que nadie conoce, con las iteraciones actuales. Verificar contra él
+     * cuesta lo mismo que contra un hash real, así que un login de un correo inexistente o inactivo tarda
+     * lo mismo que uno con la contraseña equivocada.
+     */
+    public String getDummyHash() {
+        return dummyHash;
+    }
+
+    /**
+     * Calcula las iteraciones que toman {@code users.password.hash.target-ms} en este equipo a partir del
+     * mejor de varios hashes de prueba, con un mínimo de {@code users.password.hash.min-iterations}.
+     */
+    int calibrate() {
+        byte[] salt = newSalt();
+        char[] sample = "calibracion".toCharArray();
+        pbkdf2(sample, salt, CALIBRATION_ITERATIONS);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            pbkdf2(sample, salt, CALIBRATION_ITERATIONS);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long target = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        long calibrated = CALIBRATION_ITERATIONS * target / Math.max(best, 1);
+        int result = (int) Math.max(minIterations, Math.min(MAX_ITERATIONS, calibrated));
+        log.info("Hash de contraseñas calibrado en {} iteraciones ({} µs por {} iteraciones, objetivo {} ms, {} hilos)",
+                result, best / 1000, CALIBRATION_ITERATIONS, targetMillis, executor.getMaximumPoolSize());
+        return result;
+    }
+
+    /**
+     * Calcula el hash en el pool y espera el resultado; el hilo que llama no usa CPU mientras tanto.
+     */
+    public String hash(String password) {
+        int current = iterations;
+        return await(submit(() -> encode(password, newSalt(), current)));
+    }
+
+    /**
+     * Hash de varias contraseñas para lotes e importaciones, en el orden recibido. Cada contraseña es una
+     * tarea y a lo sumo {@code bulk-threads} están en el pool a la vez; el hilo que llama se bloquea hasta
+     * que se libera un lugar, así que un lote grande no llena la cola ni deja sin hilos a los hashes en línea.
+     */
+    public List<String> hashAll(List<String> passwords) {
+        int current = iterations;
+        List<CompletableFuture<String>> futures = new ArrayList<>(passwords.size());
+        for (String password : passwords) {
+            acquireBulkPermit();
+            CompletableFuture<String> future;
+            try {
+                future = submit(() -> encode(password, newSalt(), current));
+            } catch (RuntimeException e) {
+                bulkPermits.release();
+                throw e;
+            }
+            future.whenComplete((hash, error) -> bulkPermits.release());
+            futures.add(future);
+        }
+        List<String> hashes = new ArrayList<>(passwords.size());
+        for (CompletableFuture<String> future : futures) {
+            hashes.add(await(future));
+        }
+        return hashes;
+    }
+
+    /**
+     * Compara en tiempo constante. Un valor sin el prefijo {@value #PREFIX} o mal formado no coincide con
+     * ninguna contraseña.
+     */
+    public boolean matches(String password, String stored) {
+        if (stored == null || !stored.startsWith(PREFIX + "$")) {
+            return false;
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        int storedIterations;
+        byte[] salt;
+        byte[] expected;
+        try {
+            storedIterations = Integer.parseInt(parts[1]);
+            salt = Base64.getDecoder().decode(parts[2]);
+            expected = Base64.getDecoder().decode(parts[3]);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (storedIterations < 1 || storedIterations > Math.max(MAX_ITERATIONS, iterations) || salt.length == 0) {
+            return false;
+        }
+        byte[] actual = await(submit(() -> pbkdf2(password.toCharArray(), salt, storedIterations)));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void acquireBulkPermit() {
+        long start = System.nanoTime();
+        try {
+            bulkPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hash de lote interrumpido", e);
+        } finally {
+            bulkWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                queueWait.record(start - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("El servicio está saturado, intente nuevamente más tarde", retryAfterSeconds);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static String encode(String password, byte[] salt, int iterations) {
+        byte[] hash = pbkdf2(password.toCharArray(), salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    private static byte[] pbkdf2(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 no disponible", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private byte[] newSalt() {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        return salt;
+    }
+}
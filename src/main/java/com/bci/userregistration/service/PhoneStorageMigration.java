@@ -0,0 +1,129 @@
+package com.bci.userregistration.service;
+
+import com.bci.userregistration.entity.PhoneListConverter;
+import com.bci.userregistration.entity.PhoneNumber;
+import com.bci.userregistration.entity.PhoneStorage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.UUIDBinaryType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Mueve los teléfonos de la tabla {@code phones} a la columna {@code users.phones_inline} (y su
+ * E.164 a {@code user_phone_e164}), por bloques de usuarios y una transacción por bloque. Es idempotente: un usuario sin filas en
+ * {@code phones} no se vuelve a tocar. Usa consultas directas para no disparar {@code @PreUpdate}
+ * y no cambiar {@code modified}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PhoneStorageMigration {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${users.phones.storage:TABLE}")
+    private PhoneStorage phoneStorage;
+
+    @Value("${users.phones.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${users.phones.migration.chunk-size:500}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (phoneStorage == PhoneStorage.INLINE && migrateOnStartup) {
+            migrate();
+        }
+    }
+
+    public boolean isInlineStorage() {
+        return phoneStorage == PhoneStorage.INLINE;
+    }
+
+    /**
+     * Retorna la cantidad de usuarios cuyos teléfonos se movieron. Sólo corre con
+     * {@code users.phones.storage=INLINE}: en modo TABLE las lecturas dejarían de ver los teléfonos movidos.
+     */
+    public int migrate() {
+        if (!isInlineStorage()) {
+            throw new IllegalStateException("La migración de teléfonos requiere users.phones.storage=INLINE");
+        }
+        long start = System.currentTimeMillis();
+        int migrated = 0;
+        UUID after = null;
+        while (true) {
+            UUID cursor = after;
+            List<UUID> ids = transactionTemplate.execute(status -> migrateChunk(cursor));
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            migrated += ids.size();
+            after = ids.get(ids.size() - 1);
+        }
+        log.info("Teléfonos de {} usuarios movidos a users.phones_inline en {} ms",
+                migrated, System.currentTimeMillis() - start);
+        return migrated;
+    }
+
+    private List<UUID> migrateChunk(UUID after) {
+        List<UUID> ids = (after == null
+                ? entityManager.createQuery("select distinct p.user.id from Phone p order by p.user.id", UUID.class)
+                : entityManager.createQuery("select distinct p.user.id from Phone p where p.user.id > :after "
+                        + "order by p.user.id", UUID.class).setParameter("after", after))
+                .setMaxResults(chunkSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        Map<UUID, List<PhoneNumber>> phonesByUser = new LinkedHashMap<>();
+        for (Object[] row : entityManager.createQuery("select u.id, u.inlinePhones from User u where u.id in :ids",
+                Object[].class).setParameter("ids", ids).getResultList()) {
+            @SuppressWarnings("unchecked")
+            List<PhoneNumber> inline = row[1] == null ? new ArrayList<>() : new ArrayList<>((List<PhoneNumber>) row[1]);
+            phonesByUser.put((UUID) row[0], inline);
+        }
+        for (Object[] row : entityManager.createQuery("select p.user.id, p.number, p.citycode, p.contrycode, p.e164 "
+                + "from Phone p where p.user.id in :ids order by p.id", Object[].class)
+                .setParameter("ids", ids).getResultList()) {
+            phonesByUser.get((UUID) row[0]).add(
+                    new PhoneNumber((String) row[1], (String) row[2], (String) row[3], (String) row[4]));
+        }
+
+        for (Map.Entry<UUID, List<PhoneNumber>> entry : phonesByUser.entrySet()) {
+            entityManager.createNativeQuery("update users set phones_inline = :phones where id = :id")
+                    .unwrap(NativeQuery.class)
+                    .setParameter("phones", PhoneListConverter.toColumn(entry.getValue()))
+                    .setParameter("id", entry.getKey(), UUIDBinaryType.INSTANCE)
+                    .executeUpdate();
+        }
+        // Copia (e164, user_id) al índice de los teléfonos inline antes de borrar las filas
+        entityManager.createNativeQuery("insert into user_phone_e164 (user_id, e164) "
+                + "select distinct p.user_id, p.e164 from phones p where p.user_id in (:ids) and p.e164 is not null "
+                + "and not exists (select 1 from user_phone_e164 e where e.user_id = p.user_id and e.e164 = p.e164)")
+                .unwrap(NativeQuery.class)
+                .setParameterList("ids", ids, UUIDBinaryType.INSTANCE)
+                .executeUpdate();
+        entityManager.createQuery("delete from Phone p where p.user.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return ids;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bci.userregistration.service;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@code POST /actuator/phonemigration} mueve los teléfonos de la tabla {@code phones} a
+ * {@code users.phones_inline}. Responde 409 si la aplicación no está en modo {@code INLINE}.
+ */
+@Component
+@Endpoint(id = "phonemigration")
+@RequiredArgsConstructor
+public class PhoneStorageMigrationEndpoint {
+
+    private final PhoneStorageMigration phoneStorageMigration;
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> migrate() {
+        if (!phoneStorageMigration.isInlineStorage()) {
+            return new WebEndpointResponse<>(Collections.singletonMap("mensaje",
+                    "La migración de teléfonos requiere users.phones.storage=INLINE"), HttpStatus.CONFLICT.value());
+        }
+        return new WebEndpointResponse<>(Collections.singletonMap("migrated", phoneStorageMigration.migrate()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.bci.userregistration.service;
+
+import com.bci.userregistration.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Pool acotado para el registro asíncrono. Cuando la cola está llena rechaza de inmediato con
+ * {@link ServiceOverloadedException} en vez de encolar sin límite.
+ */
+@Component
+@RequiredArgsConstructor
+public class RegistrationExecutor implements Executor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${registration.async.pool-size:8}")
+    private int poolSize;
+
+    @Value("${registration.async.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${registration.async.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueWait;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "registration-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        queueWait = Timer.builder("registration.executor.queue.wait")
+                .description("Tiempo que una solicitud espera en cola antes de ejecutarse")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        rejected = Counter.builder("registration.executor.rejected")
+                .description("Solicitudes rechazadas con 503 por cola llena")
+                .register(meterRegistry);
+        Gauge.builder("registration.executor.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("registration.executor.queue.remaining", executor, pool -> pool.getQueue().remainingCapacity())
+                .register(meterRegistry);
+        Gauge.builder("registration.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("El servicio está saturado, intente nuevamente más tarde", retryAfterSeconds);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
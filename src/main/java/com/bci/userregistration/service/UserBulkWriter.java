@@ -0,0 +1,147 @@
+package com.bci.userregistration.service;
+
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.entity.User;
+import com.bci.userregistration.event.UserRegisteredEvent;
+import com.bci.userregistration.index.EmailIndex;
+import com.bci.userregistration.mapper.UserMapper;
+import com.bci.userregistration.repository.ConstraintViolations;
+import com.bci.userregistration.repository.UserRepository;
+import com.bci.userregistration.validation.UserValidator;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+/**
+ * Pasos comunes de {@code /sign-up/batch} y de la importación desde archivo: validar cada solicitud,
+ * descartar los correos ya registrados con el índice de correos y una sola consulta {@code IN}, y guardar
+ * un bloque en una transacción con inserts en batch JDBC, aislando los correos que tomó un registro
+ * concurrente.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserBulkWriter {
+
+    private final Validator validator;
+    private final UserValidator userValidator;
+    private final UserRepository userRepository;
+    private final EmailIndex emailIndex;
+    private final UserMapper userMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Mensaje de rechazo con las mismas validaciones de {@code /sign-up}, o {@code null} si la solicitud
+     * es válida.
+     */
+    public String validate(UserRegistrationRequest request) {
+        if (request == null) {
+            return "La solicitud de registro no puede ser nula";
+        }
+        Set<ConstraintViolation<UserRegistrationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining(", "));
+        }
+        List<String> ruleViolations = userValidator.findViolations(request);
+        return ruleViolations.isEmpty() ? null : String.join(", ", ruleViolations);
+    }
+
+    /**
+     * Correos de {@code emails} que ya están registrados. Sólo se consultan en la base los que el índice
+     * no descarta; sin el índice cargado se consultan todos y no se cuentan falsos positivos.
+     */
+    public Set<String> findRegisteredEmails(List<String> emails) {
+        boolean indexReady = emailIndex.isReady();
+        List<String> maybeRegistered = emails.stream()
+                .filter(email -> !indexReady || emailIndex.mightContain(email))
+                .collect(Collectors.toList());
+        if (maybeRegistered.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> registered = new HashSet<>(userRepository.findExistingEmails(maybeRegistered));
+        if (indexReady) {
+            for (int i = registered.size(); i < maybeRegistered.size(); i++) {
+                emailIndex.recordFalsePositive();
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * Guarda {@code users} en una transacción y marca cada uno como creado o como correo ya registrado.
+     * Con {@code publishEvents} se publica un {@link UserRegisteredEvent} por usuario dentro de la
+     * transacción. Una violación distinta de la del correo se propaga; los usuarios guardados antes de
+     * ella quedan marcados como creados.
+     */
+    public void saveAll(List<? extends BulkUser> users, boolean publishEvents) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            markCreated(users, transactionTemplate.execute(status -> save(users, publishEvents)));
+        } catch (DataIntegrityViolationException e) {
+            // Otro registro concurrente tomó alguno de los correos: se reintenta uno a uno para aislarlo
+            for (BulkUser user : users) {
+                List<BulkUser> single = Collections.singletonList(user);
+                try {
+                    markCreated(single, transactionTemplate.execute(status -> save(single, publishEvents)));
+                } catch (DataIntegrityViolationException ex) {
+                    if (!ConstraintViolations.isViolationOf(ex, User.EMAIL_CONSTRAINT)) {
+                        throw ex;
+                    }
+                    user.markDuplicate();
+                }
+            }
+        }
+    }
+
+    private List<UserResponse> save(List<? extends BulkUser> pending, boolean publishEvents) {
+        List<User> users = new ArrayList<>(pending.size());
+        for (BulkUser candidate : pending) {
+            User user = userMapper.buildUser(candidate.getRequest(), candidate.getUserId(), candidate.getToken(),
+                    candidate.getPasswordHash());
+            userMapper.addPhonesToUser(user, candidate.getRequest());
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+        userRepository.flush();
+        List<UserResponse> responses = new ArrayList<>(users.size());
+        for (User user : users) {
+            UserResponse response = userMapper.buildUserResponse(user);
+            if (publishEvents) {
+                eventPublisher.publishEvent(new UserRegisteredEvent(user.getEmail(), response));
+            }
+            responses.add(response);
+        }
+        entityManager.clear();
+        return responses;
+    }
+
+    // Se marca después del commit: si la transacción falla ningún usuario queda como creado
+    private static void markCreated(List<? extends BulkUser> users, List<UserResponse> responses) {
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).markCreated(responses.get(i));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.bci.userregistration.service;
+
+import com.bci.userregistration.index.SegmentedUserList;
+import com.bci.userregistration.index.UserListSnapshot;
+import com.bci.userregistration.index.UserReadModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON (y su versión gzip) de la lista completa de usuarios, calculado una vez por versión de
+ * {@link UserReadModel}. La versión forma el ETag, por lo que una consulta condicional se
+ * responde sin serializar ni consultar la base de datos. El JSON de cada segmento completo de
+ * la lista se guarda entre versiones, así que una versión nueva sólo serializa el último segmento
+ * y los que cambiaron; el gzip sí se recalcula sobre el JSON completo.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserListCache {
+
+    private final UserReadModel userReadModel;
+    private final ObjectMapper objectMapper;
+
+    @Value("${users.list.gzip.min-size:2048}")
+    private int gzipMinSize;
+
+    // Distingue versiones de procesos distintos, ya que el contador parte de cero al iniciar
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile EncodedUserList cached;
+
+    // JSON de los segmentos completos de la última versión codificada, sin los corchetes; se usa con el monitor tomado
+    private Map<Object, byte[]> encodedSegments = new IdentityHashMap<>();
+
+    /**
+     * Retorna {@code null} mientras la copia en memoria no está cargada.
+     */
+    public EncodedUserList current() {
+        if (!userReadModel.isReady()) {
+            return null;
+        }
+        UserListSnapshot snapshot = userReadModel.current();
+        EncodedUserList encoded = cached;
+        if (encoded != null && encoded.getVersion() >= snapshot.getVersion()) {
+            return encoded;
+        }
+        synchronized (this) {
+            encoded = cached;
+            if (encoded == null || encoded.getVersion() < snapshot.getVersion()) {
+                encoded = encode(snapshot);
+                cached = encoded;
+            }
+            return encoded;
+        }
+    }
+
+    private EncodedUserList encode(UserListSnapshot snapshot) {
+        try {
+            byte[] json = json(snapshot.getUsers());
+            byte[] gzip = json.length >= gzipMinSize ? gzip(json) : null;
+            String tag = instanceId + "-" + snapshot.getVersion();
+            return new EncodedUserList(snapshot.getVersion(), "\"" + tag + "\"", json, "\"" + tag + "-gzip\"", gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Llamar con el monitor tomado
+    private byte[] json(SegmentedUserList users) throws IOException {
+        Map<Object, byte[]> segments = new IdentityHashMap<>();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        json.write('[');
+        for (int i = 0; i < users.segmentCount(); i++) {
+            Object key = users.segmentKey(i);
+            byte[] segment = users.isSegmentFull(i) ? encodedSegments.get(key) : null;
+            if (segment == null) {
+                byte[] array = objectMapper.writeValueAsBytes(users.segment(i));
+                segment = Arrays.copyOfRange(array, 1, array.length - 1);
+            }
+            if (users.isSegmentFull(i)) {
+                segments.put(key, segment);
+            }
+            if (i > 0) {
+                json.write(',');
+            }
+            json.write(segment);
+        }
+        json.write(']');
+        encodedSegments = segments;
+        return json.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class EncodedUserList {
+
+        private final long version;
+        private final String eTag;
+        private final byte[] json;
+        private final String gzipETag;
+        // null cuando el JSON no alcanza users.list.gzip.min-size
+        private final byte[] gzip;
+    }
+}
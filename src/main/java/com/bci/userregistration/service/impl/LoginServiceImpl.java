@@ -0,0 +1,74 @@
+package com.bci.userregistration.service.impl;
+
+import com.bci.userregistration.dto.LoginRequest;
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.exception.InvalidCredentialsException;
+import com.bci.userregistration.repository.UserCredentials;
+import com.bci.userregistration.repository.UserRepository;
+import com.bci.userregistration.service.ILoginService;
+import com.bci.userregistration.service.JwtService;
+import com.bci.userregistration.service.LastLoginBuffer;
+import com.bci.userregistration.service.PasswordHasher;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class LoginServiceImpl implements ILoginService {
+
+    private static final String INVALID_CREDENTIALS_MESSAGE = "Correo o contraseña inválidos";
+    private static final String INVALID_TOKEN_MESSAGE = "Token inválido o expirado";
+
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final LastLoginBuffer lastLoginBuffer;
+    private final PasswordHasher passwordHasher;
+
+    /**
+     * Verifica las credenciales con una sola consulta de lectura y emite un token nuevo. El
+     * {@code last_login} se escribe después, en lote, desde {@link LastLoginBuffer}. Un correo inexistente
+     * o inactivo se verifica igual contra {@link PasswordHasher#getDummyHash()}, para que el tiempo de
+     * respuesta no revele qué correos están registrados.
+     */
+    @Override
+    public UserResponse login(LoginRequest request) {
+        Optional<UserCredentials> found = userRepository.findCredentialsByEmail(request.getEmail())
+                .filter(user -> Boolean.TRUE.equals(user.getIsActive()));
+        String stored = found.map(UserCredentials::getPassword).orElseGet(passwordHasher::getDummyHash);
+        boolean matches = passwordHasher.matches(request.getPassword(), stored);
+        if (!found.isPresent() || !matches) {
+            throw new InvalidCredentialsException(INVALID_CREDENTIALS_MESSAGE);
+        }
+        UserCredentials credentials = found.get();
+
+        Date now = new Date();
+        lastLoginBuffer.record(credentials.getId(), now);
+
+        return UserResponse.builder()
+                .id(credentials.getId())
+                .created(credentials.getCreated())
+                .modified(credentials.getModified())
+                .lastLogin(now)
+                .token(jwtService.generateToken(credentials.getEmail(), credentials.getId()))
+                .isActive(credentials.getIsActive())
+                .build();
+    }
+
+    /**
+     * Revoca el token hasta su expiración; los siguientes {@code validateToken} lo rechazan sin consultar
+     * la base de datos.
+     */
+    @Override
+    public void logout(String token) {
+        try {
+            jwtService.revoke(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidCredentialsException(INVALID_TOKEN_MESSAGE);
+        }
+    }
+}
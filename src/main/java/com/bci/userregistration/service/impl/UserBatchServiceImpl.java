@@ -0,0 +1,172 @@
+package com.bci.userregistration.service.impl;
+
+import com.bci.userregistration.dto.BatchRegistrationResponse;
+import com.bci.userregistration.dto.BatchRegistrationResult;
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.exception.ServiceOverloadedException;
+import com.bci.userregistration.exception.ValidationException;
+import com.bci.userregistration.id.UserIdGenerator;
+import com.bci.userregistration.service.BulkUser;
+import com.bci.userregistration.service.IUserBatchService;
+import com.bci.userregistration.service.JwtService;
+import com.bci.userregistration.service.PasswordHasher;
+import com.bci.userregistration.service.UserBulkWriter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserBatchServiceImpl implements IUserBatchService {
+
+    private static final String DUPLICATE_EMAIL_MESSAGE = "El correo ya registrado";
+    private static final String FAILED_MESSAGE = "No se pudo registrar el usuario, intente nuevamente";
+
+    private final UserBulkWriter bulkWriter;
+    private final JwtService jwtService;
+    private final UserIdGenerator userIdGenerator;
+    private final PasswordHasher passwordHasher;
+
+    @Value("${users.batch.max-size:50000}")
+    private int maxBatchSize;
+
+    @Value("${users.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public BatchRegistrationResponse registerUsers(List<UserRegistrationRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ValidationException("La lista de usuarios no puede estar vacía");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new ValidationException("La lista de usuarios no puede superar " + maxBatchSize + " elementos");
+        }
+
+        BatchRegistrationResult[] results = new BatchRegistrationResult[requests.size()];
+        Set<String> seenEmails = new HashSet<>();
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, requests.size());
+            try {
+                registerChunk(requests, from, to, seenEmails, results);
+            } catch (RuntimeException e) {
+                // Los bloques anteriores ya están confirmados: el fallo se informa por elemento y no aborta
+                // la respuesta, para que el cliente sepa cuáles reintentar
+                log.error("No se pudo registrar el bloque {}-{} del lote", from, to - 1, e);
+                failChunk(from, to, e, results);
+            }
+        }
+
+        int created = 0;
+        for (BatchRegistrationResult result : results) {
+            if (result.getStatus() == HttpStatus.CREATED.value()) {
+                created++;
+            }
+        }
+        return BatchRegistrationResponse.builder()
+                .created(created)
+                .rejected(results.length - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    // Marca como fallidos los elementos del bloque que todavía no tienen resultado
+    private static void failChunk(int from, int to, RuntimeException cause, BatchRegistrationResult[] results) {
+        boolean overloaded = cause instanceof ServiceOverloadedException;
+        for (int i = from; i < to; i++) {
+            if (results[i] == null) {
+                results[i] = overloaded
+                        ? rejected(i, HttpStatus.SERVICE_UNAVAILABLE, cause.getMessage())
+                        : rejected(i, HttpStatus.INTERNAL_SERVER_ERROR, FAILED_MESSAGE);
+            }
+        }
+    }
+
+    private void registerChunk(List<UserRegistrationRequest> requests, int from, int to,
+                               Set<String> seenEmails, BatchRegistrationResult[] results) {
+        List<PendingUser> candidates = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            UserRegistrationRequest request = requests.get(i);
+            String error = bulkWriter.validate(request);
+            if (error != null) {
+                results[i] = rejected(i, HttpStatus.BAD_REQUEST, error);
+            } else if (!seenEmails.add(request.getEmail())) {
+                results[i] = rejected(i, HttpStatus.CONFLICT, DUPLICATE_EMAIL_MESSAGE);
+            } else {
+                candidates.add(new PendingUser(i, request));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingEmails = bulkWriter.findRegisteredEmails(candidates.stream()
+                .map(PendingUser::getEmail)
+                .collect(Collectors.toList()));
+        List<PendingUser> pending = new ArrayList<>(candidates.size());
+        for (PendingUser candidate : candidates) {
+            if (existingEmails.contains(candidate.getEmail())) {
+                results[candidate.index] = rejected(candidate.index, HttpStatus.CONFLICT, DUPLICATE_EMAIL_MESSAGE);
+            } else {
+                candidate.setUserId(userIdGenerator.next());
+                candidate.setToken(jwtService.generateToken(candidate.getEmail(), candidate.getUserId()));
+                pending.add(candidate);
+            }
+        }
+        // Fuera de la transacción del bloque, en la parte del pool de hash reservada a lotes
+        List<String> passwordHashes = passwordHasher.hashAll(pending.stream()
+                .map(candidate -> candidate.getRequest().getPassword())
+                .collect(Collectors.toList()));
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).setPasswordHash(passwordHashes.get(i));
+        }
+        try {
+            bulkWriter.saveAll(pending, true);
+        } finally {
+            // También si el guardado falla a mitad: los ya confirmados se informan como creados
+            for (PendingUser user : pending) {
+                if (user.getCreated() != null) {
+                    results[user.index] = created(user.index, user.getCreated());
+                } else if (user.isDuplicate()) {
+                    results[user.index] = rejected(user.index, HttpStatus.CONFLICT, DUPLICATE_EMAIL_MESSAGE);
+                }
+            }
+        }
+    }
+
+    private static BatchRegistrationResult created(int index, UserResponse user) {
+        return BatchRegistrationResult.builder()
+                .index(index)
+                .status(HttpStatus.CREATED.value())
+                .user(user)
+                .build();
+    }
+
+    private static BatchRegistrationResult rejected(int index, HttpStatus status, String message) {
+        return BatchRegistrationResult.builder()
+                .index(index)
+                .status(status.value())
+                .mensaje(message)
+                .build();
+    }
+
+    private static final class PendingUser extends BulkUser {
+        private final int index;
+
+        private PendingUser(int index, UserRegistrationRequest request) {
+            super(request);
+            this.index = index;
+        }
+    }
+}
@@ -1,118 +1,184 @@
 package com.bci.userregistration.service.impl;
 
-import com.bci.userregistration.dto.PhoneDTO;
 import com.bci.userregistration.dto.UserRegistrationRequest;
 import com.bci.userregistration.dto.UserResponse;
-import com.bci.userregistration.entity.Phone;
+import com.bci.userregistration.dto.UserSearchCriteria;
 import com.bci.userregistration.entity.User;
+import com.bci.userregistration.event.UserRegisteredEvent;
 import com.bci.userregistration.exception.DuplicateEmailException;
 import com.bci.userregistration.exception.ValidationException;
+import com.bci.userregistration.id.UserIdGenerator;
+import com.bci.userregistration.index.UserReadModel;
+import com.bci.userregistration.entity.PhoneStorage;
+import com.bci.userregistration.mapper.PhoneNormalizer;
+import com.bci.userregistration.mapper.UserMapper;
+import com.bci.userregistration.metrics.UserMetrics;
+import com.bci.userregistration.repository.ConstraintViolations;
+import com.bci.userregistration.repository.PhoneRepository;
 import com.bci.userregistration.repository.UserRepository;
+import com.bci.userregistration.repository.UserSearchCursor;
 import com.bci.userregistration.service.JwtService;
 import com.bci.userregistration.service.IUserService;
+import com.bci.userregistration.service.PasswordHasher;
+import com.bci.userregistration.validation.UserValidator;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements IUserService {
 	
     private final UserRepository userRepository;
+    private final PhoneRepository phoneRepository;
     private final JwtService jwtService;
+    private final UserValidator userValidator;
+    private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserMetrics metrics;
+    private final UserReadModel userReadModel;
+    private final UserIdGenerator userIdGenerator;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
 
-    @Value("${validation.email.pattern}")
-    private String emailPattern;
+    @Value("${users.page.default-limit:100}")
+    private int defaultPageLimit;
 
-    @Value("${validation.password.pattern}")
-    private String passwordPattern;
+    @Value("${users.page.max-limit:1000}")
+    private int maxPageLimit;
 
-    @Value("${validation.password.message}")
-    private String passwordMessage;
+    @Value("${users.phones.storage:TABLE}")
+    private PhoneStorage phoneStorage = PhoneStorage.TABLE;
 
     @Override
-    @Transactional(readOnly = true)
     public List<UserResponse> findAll() {
-        return userRepository.findAll()
-                .stream()
-                .map(this::buildUserResponse)
-                .collect(Collectors.toList());
+        if (userReadModel.isReady()) {
+            return userReadModel.snapshot();
+        }
+        long start = System.nanoTime();
+        List<UserResponse> users = userRepository.findAllResponses();
+        metrics.recordListQuery(System.nanoTime() - start);
+        return users;
     }
 
     @Override
-    @Transactional
-    public UserResponse registerUser(UserRegistrationRequest request) {
-        validateEmail(request.getEmail());
-        validatePassword(request.getPassword());
+    @Transactional(readOnly = true)
+    public List<UserResponse> findPage(UUID after, Integer limit) {
+        long start = System.nanoTime();
+        PageRequest page = PageRequest.of(0, resolvePageLimit(limit));
+        List<UserResponse> users = after == null
+                ? userRepository.findResponsesPage(page)
+                : userRepository.findResponsesAfter(after, page);
+        metrics.recordListQuery(System.nanoTime() - start);
+        return users;
+    }
 
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new DuplicateEmailException("El correo ya registrado");
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserResponse> consumer) {
+        try (Stream<UserResponse> users = userRepository.streamAllResponses()) {
+            users.forEach(consumer);
         }
-        UUID userId = UUID.randomUUID();
-        String token = jwtService.generateToken(request.getEmail(), userId);
-        User user = buildUser(request, userId, token);
-        addPhonesToUser(user, request);
-
-        User savedUser = userRepository.save(user);
-
-        return buildUserResponse(savedUser);
     }
 
-    private User buildUser(UserRegistrationRequest request, UUID userId, String token) {
-        return User.builder()
-        		.id(userId)
-                .name(request.getName())
-                .email(request.getEmail())
-                .password(request.getPassword())
-                .token(token)
-                .isActive(true)
-                .phones(new ArrayList<>())
-                .build();
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponse> findByPhone(String phone, String citycode, String contrycode) {
+        String e164 = citycode == null && contrycode == null
+                ? PhoneNormalizer.parseE164(phone)
+                : PhoneNormalizer.toE164(contrycode, citycode, phone);
+        if (e164 == null) {
+            throw new ValidationException("El teléfono debe venir en formato E.164 (+56912345678) o con contrycode y citycode");
+        }
+        // Cada usuario una sola vez aunque el número aparezca en los dos índices
+        Set<UUID> userIds = new LinkedHashSet<>(phoneRepository.findUserIdsByE164(e164));
+        if (phoneStorage == PhoneStorage.INLINE) {
+            userIds.addAll(userRepository.findIdsByInlinePhoneE164(e164));
+        }
+        return userIds.isEmpty()
+                ? new ArrayList<>()
+                : new ArrayList<>(userRepository.findResponsesByIds(userIds));
     }
 
-    private void addPhonesToUser(User user, UserRegistrationRequest request) {
-        if (request.getPhones() != null && !request.getPhones().isEmpty()) {
-            for (PhoneDTO phoneDTO : request.getPhones()) {
-                Phone phone = Phone.builder()
-                        .number(phoneDTO.getNumber())
-                        .citycode(phoneDTO.getCitycode())
-                        .contrycode(phoneDTO.getContrycode())
-                        .build();
-                user.addPhone(phone);
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponse> search(UserSearchCriteria criteria, String after, Integer limit) {
+        UserSearchCursor cursor = null;
+        if (after != null) {
+            cursor = UserSearchCursor.parse(after);
+            if (cursor == null) {
+                throw new ValidationException("El parámetro after no es un cursor válido");
             }
         }
+        return userRepository.search(criteria, cursor, resolvePageLimit(limit));
     }
-    
-
-    private UserResponse buildUserResponse(User user) {
-        return UserResponse.builder()
-                .id(user.getId())
-                .created(user.getCreated())
-                .modified(user.getModified())
-                .lastLogin(user.getLastLogin())
-                .token(user.getToken())
-                .isActive(user.getIsActive())
-                .build();
+
+    /**
+     * Valida, calcula el hash de la contraseña y firma el token fuera de la transacción; sólo el
+     * insert y la publicación del evento corren dentro de ella.
+     */
+    @Override
+    public UserResponse registerUser(UserRegistrationRequest request) {
+        long start = System.nanoTime();
+        userValidator.validate(request);
+        long validated = System.nanoTime();
+        metrics.recordRegistrationValidation(validated - start);
+
+        String passwordHash = passwordHasher.hash(request.getPassword());
+        long hashed = System.nanoTime();
+        metrics.recordRegistrationHash(hashed - validated);
+
+        UUID userId = userIdGenerator.next();
+        String token = jwtService.generateToken(request.getEmail(), userId);
+        long tokenIssued = System.nanoTime();
+        metrics.recordRegistrationToken(tokenIssued - hashed);
+        User user = userMapper.buildUser(request, userId, token, passwordHash);
+        userMapper.addPhonesToUser(user, request);
+
+        return transactionTemplate.execute(status -> persist(user, tokenIssued));
     }
 
-    
-    private void validateEmail(String email) {
-        if (!Pattern.matches(emailPattern, email)) {
-            throw new ValidationException("El formato del correo es inválido");
+    private UserResponse persist(User user, long tokenIssued) {
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, User.EMAIL_CONSTRAINT)) {
+                throw new DuplicateEmailException("El correo ya registrado");
+            }
+            throw e;
         }
+        long persisted = System.nanoTime();
+        metrics.recordRegistrationPersist(persisted - tokenIssued);
+
+        UserResponse response = userMapper.buildUserResponse(savedUser);
+        metrics.recordRegistrationMapping(System.nanoTime() - persisted);
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getEmail(), response));
+        return response;
     }
 
-    private void validatePassword(String password) {
-        if (!Pattern.matches(passwordPattern, password)) {
-            throw new ValidationException(passwordMessage);
+    @Override
+    public int resolvePageLimit(Integer limit) {
+        if (limit == null) {
+            return defaultPageLimit;
+        }
+        if (limit < 1) {
+            throw new ValidationException("El parámetro limit debe ser mayor que 0");
         }
+        return Math.min(limit, maxPageLimit);
     }
 }
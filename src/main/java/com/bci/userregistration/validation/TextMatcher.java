@@ -0,0 +1,6 @@
+package com.bci.userregistration.validation;
+
+@FunctionalInterface
+public interface TextMatcher {
+    boolean matches(String value);
+}
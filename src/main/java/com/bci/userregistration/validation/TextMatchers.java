@@ -0,0 +1,104 @@
+package com.bci.userregistration.validation;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compila las expresiones de {@code validation.*.pattern} una sola vez. Las formas conocidas
+ * (largo mínimo/máximo y el formato de correo por defecto) se resuelven con un recorrido de
+ * caracteres equivalente a la regex; el resto usa un {@link Pattern} precompilado.
+ */
+public final class TextMatchers {
+
+    public static final String DEFAULT_EMAIL_PATTERN = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
+
+    private static final Pattern LENGTH_PATTERN = Pattern.compile("\\^?\\.\\{(\\d+)(,(\\d*))?}\\$?");
+
+    private TextMatchers() {
+    }
+
+    public static TextMatcher compile(String regex) {
+        if (DEFAULT_EMAIL_PATTERN.equals(regex)) {
+            return TextMatchers::isDefaultEmail;
+        }
+        Matcher length = LENGTH_PATTERN.matcher(regex);
+        if (length.matches()) {
+            int min = Integer.parseInt(length.group(1));
+            int max;
+            if (length.group(2) == null) {
+                max = min;
+            } else if (length.group(3).isEmpty()) {
+                max = Integer.MAX_VALUE;
+            } else {
+                max = Integer.parseInt(length.group(3));
+            }
+            return value -> hasLength(value, min, max);
+        }
+        Pattern pattern = Pattern.compile(regex);
+        return value -> value != null && pattern.matcher(value).matches();
+    }
+
+    // Equivale a ^.{min,max}$: '.' cuenta code points y no acepta terminadores de línea
+    static boolean hasLength(String value, int min, int max) {
+        if (value == null || value.length() < min) {
+            return false;
+        }
+        int count = 0;
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            if (isLineTerminator(codePoint) || ++count > max) {
+                return false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return count >= min;
+    }
+
+    // Equivale a DEFAULT_EMAIL_PATTERN: local@dominio donde el dominio termina en '.' y 2+ letras
+    static boolean isDefaultEmail(String value) {
+        if (value == null) {
+            return false;
+        }
+        int at = value.indexOf('@');
+        if (at < 1) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            char c = value.charAt(i);
+            if (!isAsciiAlphanumeric(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        int lastDot = -1;
+        for (int i = at + 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiAlphanumeric(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot <= at + 1 || value.length() - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < value.length(); i++) {
+            if (!isAsciiLetter(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLineTerminator(int codePoint) {
+        return codePoint == '\n' || codePoint == '\r' || codePoint == '\u0085'
+                || codePoint == '\u2028' || codePoint == '\u2029';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isAsciiAlphanumeric(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+}
@@ -0,0 +1,78 @@
+package com.bci.userregistration.validation;
+
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.exception.ValidationException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+
+@Component
+public class UserValidator {
+
+    public static final String INVALID_EMAIL_MESSAGE = "El formato del correo es inválido";
+
+    @Value("${validation.email.pattern}")
+    private String emailPattern;
+
+    @Value("${validation.password.pattern}")
+    private String passwordPattern;
+
+    @Value("${validation.password.message}")
+    private String passwordMessage;
+
+    private final List<ValidationRule> customRules;
+    private ValidationRule[] rules;
+
+    public UserValidator(List<ValidationRule> customRules) {
+        this.customRules = customRules;
+    }
+
+    @PostConstruct
+    public void init() {
+        List<ValidationRule> compiled = new ArrayList<>();
+        compiled.add(new TextRule(UserRegistrationRequest::getEmail, TextMatchers.compile(emailPattern), INVALID_EMAIL_MESSAGE));
+        compiled.add(new TextRule(UserRegistrationRequest::getPassword, TextMatchers.compile(passwordPattern), passwordMessage));
+        compiled.addAll(customRules);
+        rules = compiled.toArray(new ValidationRule[0]);
+    }
+
+    public List<String> findViolations(UserRegistrationRequest request) {
+        List<String> violations = new ArrayList<>(0);
+        for (ValidationRule rule : rules) {
+            rule.validate(request, violations);
+        }
+        return violations;
+    }
+
+    public void validate(UserRegistrationRequest request) {
+        List<String> violations = findViolations(request);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(String.join(", ", violations));
+        }
+    }
+
+    private static final class TextRule implements ValidationRule {
+        private final Function<UserRegistrationRequest, String> field;
+        private final TextMatcher matcher;
+        private final String message;
+
+        private TextRule(Function<UserRegistrationRequest, String> field, TextMatcher matcher, String message) {
+            this.field = field;
+            this.matcher = matcher;
+            this.message = message;
+        }
+
+        @Override
+        public void validate(UserRegistrationRequest request, List<String> violations) {
+            if (!matcher.matches(field.apply(request))) {
+                violations.add(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bci.userregistration.validation;
+
+import java.util.List;
+
+import com.bci.userregistration.dto.UserRegistrationRequest;
+
+/**
+ * Regla de negocio sobre una solicitud de registro. Los beans que implementen esta interfaz se
+ * agregan a {@link UserValidator} después de las reglas de correo y contraseña.
+ */
+public interface ValidationRule {
+    void validate(UserRegistrationRequest request, List<String> violations);
+}
@@ -1,12 +1,28 @@
 package com.bci.userregistration.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.UUID;
@@ -14,18 +30,38 @@ import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.bci.userregistration.dto.LoginRequest;
 import com.bci.userregistration.dto.PhoneDTO;
 import com.bci.userregistration.dto.UserRegistrationRequest;
 import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.dto.UserSearchCriteria;
 import com.bci.userregistration.exception.DuplicateEmailException;
+import com.bci.userregistration.exception.InvalidCredentialsException;
 import com.bci.userregistration.exception.ValidationException;
+import com.bci.userregistration.exception.ServiceOverloadedException;
+import com.bci.userregistration.export.ExportFormat;
+import com.bci.userregistration.export.UserExporter;
+import com.bci.userregistration.metrics.UserMetrics;
+import com.bci.userregistration.ratelimit.ClientRateLimiter;
+import com.bci.userregistration.service.ILoginService;
+import com.bci.userregistration.service.IUserBatchService;
+import com.bci.userregistration.service.IdempotencyCache;
+import com.bci.userregistration.service.RegistrationExecutor;
+import com.bci.userregistration.service.UserListCache;
+import com.bci.userregistration.service.UserListCache.EncodedUserList;
 import com.bci.userregistration.service.impl.UserServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @WebMvcTest(UserController.class)
 class UserControllerTest {
 
@@ -38,6 +74,35 @@ class UserControllerTest {
     @MockBean
     private UserServiceImpl userService;
 
+    @MockBean
+    private IUserBatchService userBatchService;
+
+    @MockBean
+    private RegistrationExecutor registrationExecutor;
+
+    @MockBean
+    private UserMetrics userMetrics;
+
+    @MockBean
+    private UserListCache userListCache;
+
+    @MockBean
+    private ClientRateLimiter clientRateLimiter;
+
+    @MockBean
+    private ILoginService loginService;
+
+    @MockBean
+    private UserExporter userExporter;
+
+    @TestConfiguration
+    static class IdempotencyConfig {
+        @Bean
+        IdempotencyCache idempotencyCache() {
+            return new IdempotencyCache(new SimpleMeterRegistry());
+        }
+    }
+
     @Test
     void registerUser_WithValidData_ShouldReturnCreated() throws Exception {
 
@@ -132,4 +197,347 @@ class UserControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.mensaje").exists());
     }
+
+    @Test
+    void registerUser_RetriedWithSameIdempotencyKey_ShouldReplayWithoutRegisteringAgain() throws Exception {
+
+        UserRegistrationRequest request = UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email("retry@rodriguez.org")
+                .password("hunter2")
+                .phones(Collections.emptyList())
+                .build();
+        UUID id = UUID.randomUUID();
+
+        when(userService.registerUser(any(UserRegistrationRequest.class))).thenReturn(UserResponse.builder()
+                .id(id)
+                .token("mock-jwt-token")
+                .isActive(true)
+                .build());
+
+        mockMvc.perform(post("/api/users/sign-up")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(UserController.IDEMPOTENT_REPLAYED_HEADER));
+
+        mockMvc.perform(post("/api/users/sign-up")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(UserController.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(id.toString()));
+
+        verify(userService, times(1)).registerUser(any(UserRegistrationRequest.class));
+    }
+
+    @Test
+    void registerUser_WithIdempotencyKeyAndNullPhoneEntry_ShouldNotFailFingerprinting() throws Exception {
+
+        when(userService.registerUser(any(UserRegistrationRequest.class))).thenReturn(UserResponse.builder()
+                .id(UUID.randomUUID())
+                .isActive(true)
+                .build());
+
+        mockMvc.perform(post("/api/users/sign-up")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "null-phone-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Juan Rodriguez\",\"email\":\"nulo@rodriguez.org\","
+                                + "\"password\":\"hunter2\",\"phones\":[null]}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void registerUser_ReusingIdempotencyKeyWithOtherBody_ShouldReturnUnprocessableEntity() throws Exception {
+
+        UserRegistrationRequest first = UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email("first@rodriguez.org")
+                .password("hunter2")
+                .phones(Collections.emptyList())
+                .build();
+        UserRegistrationRequest second = UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email("second@rodriguez.org")
+                .password("hunter2")
+                .phones(Collections.emptyList())
+                .build();
+
+        when(userService.registerUser(any(UserRegistrationRequest.class))).thenReturn(UserResponse.builder()
+                .id(UUID.randomUUID())
+                .isActive(true)
+                .build());
+
+        mockMvc.perform(post("/api/users/sign-up")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "reused-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/users/sign-up")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "reused-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.mensaje").value("La Idempotency-Key ya fue usada con una solicitud distinta"));
+    }
+
+    @Test
+    void registerUser_WhenClientIsOverLimit_ShouldReturnTooManyRequestsBeforeValidation() throws Exception {
+
+        when(clientRateLimiter.tryAcquire(anyString())).thenReturn(1_500_000_000L);
+
+        mockMvc.perform(post("/api/users/sign-up")
+                        .with(request -> {
+                            request.setRemoteAddr("203.0.113.7");
+                            return request;
+                        })
+                        .header("X-API-Key", "partner-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.mensaje").value("Demasiadas solicitudes, intente nuevamente más tarde"));
+
+        verify(clientRateLimiter).tryAcquire("ip:203.0.113.7");
+        verify(userService, never()).registerUser(any(UserRegistrationRequest.class));
+    }
+
+    @Test
+    void login_WithValidCredentials_ShouldReturnNewToken() throws Exception {
+
+        when(loginService.login(any(LoginRequest.class))).thenReturn(UserResponse.builder()
+                .id(UUID.randomUUID())
+                .lastLogin(new Date())
+                .token("login-token")
+                .isActive(true)
+                .build());
+
+        mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("juan@rodriguez.org", "hunter2"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("login-token"))
+                .andExpect(jsonPath("$.last_login").exists());
+    }
+
+    @Test
+    void login_WithInvalidCredentials_ShouldReturnUnauthorized() throws Exception {
+
+        when(loginService.login(any(LoginRequest.class)))
+                .thenThrow(new InvalidCredentialsException("Correo o contraseña inválidos"));
+
+        mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("juan@rodriguez.org", "otra"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.mensaje").value("Correo o contraseña inválidos"));
+    }
+
+    @Test
+    void welcome_WithLimit_ShouldReturnPageAndNextCursor() throws Exception {
+
+        UUID firstId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID lastId = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+        when(userService.resolvePageLimit(2)).thenReturn(2);
+        when(userService.findPage(null, 2)).thenReturn(Arrays.asList(
+                UserResponse.builder().id(firstId).isActive(true).build(),
+                UserResponse.builder().id(lastId).isActive(true).build()));
+
+        mockMvc.perform(get("/api/users/").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, lastId.toString()));
+    }
+
+    @Test
+    void welcome_AfterLastPage_ShouldReturnEmptyPageWithoutCursor() throws Exception {
+
+        UUID after = UUID.randomUUID();
+        when(userService.findPage(eq(after), isNull())).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/users/").param("after", after.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void welcome_WithCurrentETag_ShouldReturnNotModifiedWithoutQuerying() throws Exception {
+
+        when(userListCache.current()).thenReturn(
+                new EncodedUserList(3, "\"k1-3\"", "[]".getBytes(), "\"k1-3-gzip\"", null));
+
+        mockMvc.perform(get("/api/users/").header(HttpHeaders.IF_NONE_MATCH, "\"k1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"k1-3\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void welcome_AcceptingGzip_ShouldReturnCachedCompressedBody() throws Exception {
+
+        byte[] gzip = {31, -117, 8, 0};
+        when(userListCache.current()).thenReturn(
+                new EncodedUserList(4, "\"k1-4\"", "[]".getBytes(), "\"k1-4-gzip\"", gzip));
+
+        mockMvc.perform(get("/api/users/").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"k1-4-gzip\""))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(gzip));
+    }
+
+    @Test
+    void exportUsers_AsCsvAcceptingGzip_ShouldStreamCompressedAttachment() throws Exception {
+
+        byte[] exported = "id,name\r\n".getBytes(StandardCharsets.UTF_8);
+        when(userExporter.export(eq(ExportFormat.CSV), eq(true), any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write(exported);
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/users/export")
+                        .param("format", "csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().bytes(exported));
+    }
+
+    @Test
+    void exportUsers_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/users/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje").value("El formato de exportación debe ser ndjson o csv"));
+
+        verifyNoInteractions(userExporter);
+    }
+
+    @Test
+    void findByPhone_ShouldReturnOwners() throws Exception {
+
+        UUID id = UUID.randomUUID();
+        when(userService.findByPhone("+56912345678", null, null))
+                .thenReturn(Collections.singletonList(UserResponse.builder().id(id).isActive(true).build()));
+
+        mockMvc.perform(get("/api/users/by-phone").param("phone", "+56912345678"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(id.toString()));
+    }
+
+    @Test
+    void findByPhone_WithoutInternationalPrefix_ShouldReturnBadRequest() throws Exception {
+
+        when(userService.findByPhone("912345678", null, null))
+                .thenThrow(new ValidationException("El teléfono debe venir en formato E.164 (+56912345678) o con contrycode y citycode"));
+
+        mockMvc.perform(get("/api/users/by-phone").param("phone", "912345678"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje").exists());
+    }
+
+    @Test
+    void search_ShouldBindFiltersAndReturnCreatedIdCursor() throws Exception {
+
+        UUID id = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UserSearchCriteria criteria = UserSearchCriteria.builder()
+                .active(true)
+                .createdFrom(new Date(1760000000000L))
+                .namePrefix("Ju")
+                .build();
+        when(userService.resolvePageLimit(1)).thenReturn(1);
+        when(userService.search(eq(criteria), isNull(), eq(1))).thenReturn(Collections.singletonList(
+                UserResponse.builder().id(id).created(new Date(1760000001000L)).isActive(true).build()));
+
+        mockMvc.perform(get("/api/users/search")
+                        .param("active", "true")
+                        .param("createdFrom", "2025-10-09T08:53:20.000Z")
+                        .param("namePrefix", "Ju")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, "1760000001000_" + id));
+    }
+
+    @Test
+    void search_WithShortPage_ShouldOmitCursor() throws Exception {
+
+        when(userService.resolvePageLimit(10)).thenReturn(10);
+        when(userService.search(any(UserSearchCriteria.class), isNull(), eq(10))).thenReturn(Collections.singletonList(
+                UserResponse.builder().id(UUID.randomUUID()).created(new Date()).isActive(true).build()));
+
+        mockMvc.perform(get("/api/users/search")
+                        .param("namePrefix", "Ju")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void registerUserAsync_WithValidData_ShouldReturnCreated() throws Exception {
+
+        UserRegistrationRequest request = UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email("juan@rodriguez.org")
+                .password("hunter2")
+                .phones(Collections.emptyList())
+                .build();
+
+        when(userService.registerUser(any(UserRegistrationRequest.class))).thenReturn(UserResponse.builder()
+                .id(UUID.randomUUID())
+                .token("mock-jwt-token")
+                .isActive(true)
+                .build());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(registrationExecutor).execute(any(Runnable.class));
+
+        MvcResult result = mockMvc.perform(post("/api/users/sign-up/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.token").value("mock-jwt-token"));
+    }
+
+    @Test
+    void registerUserAsync_WhenQueueIsFull_ShouldReturnServiceUnavailableWithRetryAfter() throws Exception {
+
+        UserRegistrationRequest request = UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email("juan@rodriguez.org")
+                .password("hunter2")
+                .phones(Collections.emptyList())
+                .build();
+
+        doThrow(new ServiceOverloadedException("El servicio está saturado, intente nuevamente más tarde", 2))
+                .when(registrationExecutor).execute(any(Runnable.class));
+
+        mockMvc.perform(post("/api/users/sign-up/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.mensaje").value("El servicio está saturado, intente nuevamente más tarde"));
+    }
 }
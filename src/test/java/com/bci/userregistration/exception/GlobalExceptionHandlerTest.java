@@ -0,0 +1,57 @@
+package com.bci.userregistration.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void handleDuplicateEmailException_ShouldReuseTheSerializedBody() {
+        // Act
+        ResponseEntity<byte[]> first = handler.handleDuplicateEmailException(new DuplicateEmailException("El correo ya registrado"));
+        ResponseEntity<byte[]> second = handler.handleDuplicateEmailException(new DuplicateEmailException("El correo ya registrado"));
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, first.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, first.getHeaders().getContentType());
+        assertEquals("{\"mensaje\":\"El correo ya registrado\"}", new String(first.getBody(), StandardCharsets.UTF_8));
+        assertSame(first.getBody(), second.getBody());
+    }
+
+    @Test
+    void handleValidationException_ShouldSerializeVariableMessagesPerResponse() {
+        // Act
+        ResponseEntity<byte[]> first = handler.handleValidationException(
+                new ValidationException("La lista de usuarios no puede superar 50000 elementos"));
+        ResponseEntity<byte[]> second = handler.handleValidationException(
+                new ValidationException("La lista de usuarios no puede superar 50000 elementos"));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, first.getStatusCode());
+        assertEquals("{\"mensaje\":\"La lista de usuarios no puede superar 50000 elementos\"}",
+                new String(first.getBody(), StandardCharsets.UTF_8));
+        assertNotSame(first.getBody(), second.getBody());
+    }
+
+    @Test
+    void rejectionExceptions_ShouldNotCaptureStackTraces() {
+        // Act
+        ValidationException ex = new ValidationException("El formato del correo es inválido");
+        ex.addSuppressed(new IllegalStateException());
+
+        // Assert
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(0, ex.getSuppressed().length);
+    }
+}
@@ -0,0 +1,167 @@
+package com.bci.userregistration.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import com.bci.userregistration.entity.Phone;
+import com.bci.userregistration.entity.PhoneNumber;
+import com.bci.userregistration.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@Import({UserExporter.class, UserExporterTest.Metrics.class})
+@TestPropertySource(properties = "users.export.fetch-size=2")
+class UserExporterTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private UserExporter exporter;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void export_ShouldWriteOneNdjsonLinePerUserWithAllItsPhones() throws IOException {
+        // Arrange
+        User tablePhones = user(new UUID(1, 1), "tabla@rodriguez.org");
+        tablePhones.addPhone(Phone.builder().number("1234567").citycode("1").contrycode("57").e164("+5711234567").build());
+        tablePhones.addPhone(Phone.builder().number("7654321").citycode("2").contrycode("56").e164("+5627654321").build());
+        User inlinePhones = user(new UUID(1, 2), "inline@rodriguez.org");
+        inlinePhones.getInlinePhones().add(new PhoneNumber("5555555", "3", "54", "+5435555555"));
+        User noPhones = user(new UUID(1, 3), "sin-telefonos@rodriguez.org");
+        persist(noPhones, inlinePhones, tablePhones);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long exported = exporter.export(ExportFormat.NDJSON, false, out);
+
+        // Assert
+        assertEquals(3, exported);
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = MAPPER.readTree(lines[0]);
+        assertEquals(tablePhones.getId().toString(), first.get("id").asText());
+        assertEquals("tabla@rodriguez.org", first.get("email").asText());
+        assertFalse(first.has("password"));
+        assertFalse(first.has("token"));
+        assertEquals(2, first.get("phones").size());
+        assertEquals("+5711234567", first.get("phones").get(0).get("e164").asText());
+        assertEquals("7654321", first.get("phones").get(1).get("number").asText());
+        assertEquals("+5435555555", MAPPER.readTree(lines[1]).get("phones").get(0).get("e164").asText());
+        assertEquals(0, MAPPER.readTree(lines[2]).get("phones").size());
+    }
+
+    @Test
+    void export_ShouldWriteGzipCsvWithOneRowPerPhone() throws IOException {
+        // Arrange
+        User withPhones = user(new UUID(2, 1), "tabla@rodriguez.org");
+        withPhones.setName("Rodriguez, \"Juan\"");
+        withPhones.addPhone(Phone.builder().number("1234567").citycode("1").contrycode("57").e164("+5711234567").build());
+        withPhones.addPhone(Phone.builder().number("7654321").citycode("2").contrycode("56").build());
+        User noPhones = user(new UUID(2, 2), "sin-telefonos@rodriguez.org");
+        persist(withPhones, noPhones);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long exported = exporter.export(ExportFormat.CSV, true, out);
+
+        // Assert
+        assertEquals(2, exported);
+        List<String> lines = gunzipLines(out.toByteArray());
+        assertEquals(4, lines.size());
+        assertEquals(CsvUserExportWriter.HEADER, lines.get(0));
+        assertTrue(lines.get(1).startsWith(withPhones.getId() + ",\"Rodriguez, \"\"Juan\"\"\",tabla@rodriguez.org,"));
+        assertTrue(lines.get(1).endsWith(",true,1234567,1,57,+5711234567"));
+        assertTrue(lines.get(2).endsWith(",true,7654321,2,56,"));
+        assertTrue(lines.get(3).endsWith(",true,,,,"));
+    }
+
+    @Test
+    void exportTo_ShouldReplaceTheFileOnlyWhenTheExportCompletes() throws IOException {
+        // Arrange
+        persist(user(new UUID(3, 1), "archivo@rodriguez.org"));
+        Path file = tempDir.resolve("users.ndjson");
+        Files.write(file, Arrays.asList("exportación anterior"));
+
+        // Act
+        long exported = exporter.exportTo(file, ExportFormat.NDJSON, false);
+
+        // Assert
+        assertEquals(1, exported);
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertEquals("archivo@rodriguez.org", MAPPER.readTree(lines.get(0)).get("email").asText());
+        assertFalse(Files.exists(tempDir.resolve("users.ndjson.tmp")));
+    }
+
+    private void persist(User... users) {
+        for (User user : users) {
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static List<String> gunzipLines(byte[] gzip) throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                plain.write(buffer, 0, read);
+            }
+        }
+        return Arrays.asList(plain.toString(StandardCharsets.UTF_8.name()).split("\r\n"));
+    }
+
+    private static User user(UUID id, String email) {
+        return User.builder()
+                .id(id)
+                .name("Juan Rodriguez")
+                .email(email)
+                .password("hunter2")
+                .token("token")
+                .phones(new ArrayList<>())
+                .build();
+    }
+}
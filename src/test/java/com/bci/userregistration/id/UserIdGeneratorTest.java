@@ -0,0 +1,59 @@
+package com.bci.userregistration.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class UserIdGeneratorTest {
+
+    private static final long NOW = 1760000000000L;
+
+    @Test
+    void next_ShouldProduceVersion7UuidsWithTheCurrentTimestamp() {
+        UUID id = new UserIdGenerator(() -> NOW).next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(NOW, id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void next_ShouldStayStrictlyIncreasingWhenCounterOverflowsOrClockGoesBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        UserIdGenerator generator = new UserIdGenerator(clock::get);
+        Set<UUID> seen = new HashSet<>();
+
+        UUID previous = generator.next();
+        seen.add(previous);
+        for (int i = 0; i < 10000; i++) {
+            if (i == 5000) {
+                clock.set(NOW - 60000);
+            }
+            UUID id = generator.next();
+            assertTrue(id.compareTo(previous) > 0, "id " + i + " no es creciente");
+            seen.add(id);
+            previous = id;
+        }
+
+        assertEquals(10001, seen.size());
+    }
+
+    @Test
+    void next_ShouldOrderIdsByCreationTime() {
+        AtomicLong clock = new AtomicLong(NOW);
+        UserIdGenerator generator = new UserIdGenerator(clock::get);
+
+        UUID first = generator.next();
+        clock.addAndGet(1);
+        UUID second = generator.next();
+
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals(NOW + 1, second.getMostSignificantBits() >>> 16);
+    }
+}
@@ -0,0 +1,89 @@
+package com.bci.userregistration.importer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NdjsonChunkReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void next_ShouldSplitLinesSkippingBlanksAndMarkingOversizedOnes() throws IOException {
+        // Arrange
+        Path file = write("{\"a\":1}\r\n\n  \n{\"b\":2}\n" + repeat('x', 40) + "\n{\"c\":3}");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            NdjsonChunkReader reader = new NdjsonChunkReader(channel, 0, 0, 2, 32);
+
+            // Act
+            ImportChunk first = reader.next();
+            ImportChunk second = reader.next();
+
+            // Assert
+            assertEquals(2, first.count);
+            assertEquals("{\"a\":1}", line(first, 0));
+            assertEquals("{\"b\":2}", line(first, 1));
+            assertArrayEquals(new long[]{1, 4}, first.lineNumbers);
+            assertEquals(4, first.lastLine);
+            assertEquals("{\"a\":1}\r\n\n  \n{\"b\":2}\n".length(), first.endOffset);
+
+            assertEquals(2, second.count);
+            assertEquals(-1, second.lengths[0]);
+            assertEquals(5, second.lineNumbers[0]);
+            assertEquals("{\"c\":3}", line(second, 1));
+            assertEquals(Files.size(file), second.endOffset);
+            assertEquals(6, second.lastLine);
+            assertEquals(1, second.sequence);
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void next_FromCheckpoint_ShouldContinueWithTheFollowingLine() throws IOException {
+        // Arrange
+        String firstLine = "{\"a\":1}\n";
+        Path file = write(firstLine + "{\"b\":2}\n{\"c\":3}\n");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            NdjsonChunkReader reader = new NdjsonChunkReader(channel, firstLine.length(), 1, 10, 1024);
+
+            // Act
+            ImportChunk chunk = reader.next();
+
+            // Assert
+            assertEquals(2, chunk.count);
+            assertEquals("{\"b\":2}", line(chunk, 0));
+            assertEquals(2, chunk.lineNumbers[0]);
+            assertEquals(3, chunk.lastLine);
+            assertNull(reader.next());
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(tempDir.resolve("users.ndjson"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String line(ImportChunk chunk, int index) {
+        return new String(chunk.data, chunk.starts[index], chunk.lengths[index], StandardCharsets.UTF_8);
+    }
+
+    private static String repeat(char c, int times) {
+        StringBuilder builder = new StringBuilder(times);
+        for (int i = 0; i < times; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,206 @@
+package com.bci.userregistration.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bci.userregistration.entity.User;
+import com.bci.userregistration.id.UserIdGenerator;
+import com.bci.userregistration.index.EmailIndex;
+import com.bci.userregistration.mapper.UserMapper;
+import com.bci.userregistration.repository.UserRepository;
+import com.bci.userregistration.service.JwtService;
+import com.bci.userregistration.service.PasswordHasher;
+import com.bci.userregistration.service.UserBulkWriter;
+import com.bci.userregistration.validation.UserValidator;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserImporterTest {
+
+    // Igual que el ObjectMapper de Spring Boot: los DTO sin constructor vacío se crean por nombre de parámetro
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new ParameterNamesModule(JsonCreator.Mode.DEFAULT))
+            .build();
+
+    @TempDir
+    Path tempDir;
+
+    private UserRepository userRepository;
+    private EmailIndex emailIndex;
+    private UserImporter importer;
+    private final List<String> savedEmails = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        emailIndex = mock(EmailIndex.class);
+        when(emailIndex.isReady()).thenReturn(true);
+        when(emailIndex.mightContain(anyString())).thenReturn(true);
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.generateToken(anyString(), any(UUID.class))).thenReturn("mock-jwt-token");
+        PasswordHasher passwordHasher = mock(PasswordHasher.class);
+        when(passwordHasher.hashAll(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .map(password -> "hash-" + password)
+                .collect(Collectors.toList()));
+        when(userRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> invocation
+                .<List<String>>getArgument(0).stream()
+                .filter(savedEmails::contains)
+                .collect(Collectors.toList()));
+
+        UserValidator userValidator = new UserValidator(Collections.emptyList());
+        ReflectionTestUtils.setField(userValidator, "emailPattern", "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+        ReflectionTestUtils.setField(userValidator, "passwordPattern", "^.{6,}$");
+        ReflectionTestUtils.setField(userValidator, "passwordMessage", "La contraseña debe tener al menos 6 caracteres");
+        userValidator.init();
+
+        UserBulkWriter bulkWriter = new UserBulkWriter(Validation.buildDefaultValidatorFactory().getValidator(),
+                userValidator, userRepository, emailIndex, new UserMapper(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(EntityManager.class),
+                mock(ApplicationEventPublisher.class));
+        importer = new UserImporter(MAPPER, bulkWriter, new UserIdGenerator(), jwtService, passwordHasher,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(importer, "workers", 2);
+        ReflectionTestUtils.setField(importer, "chunkSize", 2);
+        ReflectionTestUtils.setField(importer, "queueCapacity", 1);
+        importer.init();
+    }
+
+    @Test
+    void importFile_ShouldImportValidLinesInFileOrderAndReportRejectedOnes() throws IOException {
+        // Arrange
+        recordSaves(Integer.MAX_VALUE);
+        Path file = write(
+                line("juan@rodriguez.org", "hunter2"),
+                "{no es json",
+                line("correo-invalido", "hunter2"),
+                "",
+                line("ana@rodriguez.org", "hunter2"),
+                line("juan@rodriguez.org", "hunter2"),
+                line("pedro@rodriguez.org", "123"),
+                line("maria@rodriguez.org", "hunter2"));
+
+        // Act
+        ImportReport report = importer.importFile(file, false);
+
+        // Assert
+        assertEquals(7, report.getRead());
+        assertEquals(3, report.getImported());
+        assertEquals(4, report.getRejected());
+        assertEquals(8, report.getLastLine());
+        assertEquals(Arrays.asList("juan@rodriguez.org", "ana@rodriguez.org", "maria@rodriguez.org"), savedEmails);
+
+        List<String> rejected = Files.readAllLines(tempDir.resolve("users.ndjson.rejected.ndjson"));
+        assertEquals(4, rejected.size());
+        assertEquals(2, MAPPER.readTree(rejected.get(0)).get("line").asLong());
+        assertTrue(MAPPER.readTree(rejected.get(0)).get("mensaje").asText().startsWith("JSON inválido"));
+        assertEquals("El formato del correo es inválido", MAPPER.readTree(rejected.get(1)).get("mensaje").asText());
+        assertEquals(6, MAPPER.readTree(rejected.get(2)).get("line").asLong());
+        assertEquals(409, MAPPER.readTree(rejected.get(2)).get("status").asInt());
+        assertEquals(7, MAPPER.readTree(rejected.get(3)).get("line").asLong());
+    }
+
+    @Test
+    void importFile_AfterAFailedChunk_ShouldResumeFromTheLastCheckpoint() throws IOException {
+        // Arrange
+        recordSaves(2);
+        Path file = write(
+                line("uno@rodriguez.org", "hunter2"),
+                line("dos@rodriguez.org", "hunter2"),
+                line("tres@rodriguez.org", "hunter2"),
+                line("cuatro@rodriguez.org", "hunter2"),
+                line("cinco@rodriguez.org", "hunter2"));
+        assertThrows(IllegalStateException.class, () -> importer.importFile(file, false));
+        assertEquals(Arrays.asList("uno@rodriguez.org", "dos@rodriguez.org"), savedEmails);
+        recordSaves(Integer.MAX_VALUE);
+
+        // Act
+        ImportReport report = importer.importFile(file, false);
+
+        // Assert
+        assertEquals(2, report.getResumedFromLine());
+        assertEquals(3, report.getRead());
+        assertEquals(3, report.getImported());
+        assertEquals(5, report.getTotalImported());
+        assertEquals(Arrays.asList("uno@rodriguez.org", "dos@rodriguez.org", "tres@rodriguez.org",
+                "cuatro@rodriguez.org", "cinco@rodriguez.org"), savedEmails);
+        assertEquals(0, importer.importFile(file, false).getRead());
+    }
+
+    @Test
+    void importFile_WithEmailIndexNotLoaded_ShouldConfirmInDatabaseWithoutCountingFalsePositives() throws IOException {
+        // Arrange
+        recordSaves(Integer.MAX_VALUE);
+        when(emailIndex.isReady()).thenReturn(false);
+        Path file = write(line("juan@rodriguez.org", "hunter2"), line("ana@rodriguez.org", "hunter2"));
+
+        // Act
+        ImportReport report = importer.importFile(file, false);
+
+        // Assert
+        assertEquals(2, report.getImported());
+        verify(userRepository).findExistingEmails(Arrays.asList("juan@rodriguez.org", "ana@rodriguez.org"));
+        verify(emailIndex, never()).mightContain(anyString());
+        verify(emailIndex, never()).recordFalsePositive();
+    }
+
+    // Guarda los correos de cada saveAll y falla en la llamada número failOnCall
+    private void recordSaves(int failOnCall) {
+        AtomicInteger calls = new AtomicInteger();
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == failOnCall) {
+                throw new IllegalStateException("Base de datos no disponible");
+            }
+            List<User> users = invocation.getArgument(0);
+            for (User user : users) {
+                savedEmails.add(user.getEmail());
+            }
+            return users;
+        });
+    }
+
+    private Path write(String... lines) throws IOException {
+        return Files.write(tempDir.resolve("users.ndjson"),
+                String.join("\n", lines).concat("\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String line(String email, String password) {
+        return "{\"name\":\"Juan Rodriguez\",\"email\":\"" + email + "\",\"password\":\"" + password
+                + "\",\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"contrycode\":\"57\"}]}";
+    }
+}
@@ -0,0 +1,50 @@
+package com.bci.userregistration.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverReturnFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+
+        for (int i = 0; i < 10000; i++) {
+            filter.put("usuario" + i + "@rodriguez.org");
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("usuario" + i + "@rodriguez.org"));
+        }
+        assertEquals(10000, filter.approximateInsertions());
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositiveRateNearConfiguredValue() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("usuario" + i + "@rodriguez.org");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain("ausente" + i + "@rodriguez.org")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives / 100000.0 < 0.02, "falsos positivos: " + falsePositives);
+        assertTrue(filter.expectedFpp() < 0.02);
+    }
+
+    @Test
+    void mightContain_OnEmptyFilter_ShouldReturnFalse() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("juan@rodriguez.org"));
+        assertEquals(0.0, filter.expectedFpp());
+    }
+}
@@ -0,0 +1,71 @@
+package com.bci.userregistration.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.bci.userregistration.dto.UserResponse;
+
+class SegmentedUserListTest {
+
+    @Test
+    void append_ShouldKeepPreviousVersionsUnchanged() {
+        List<UserResponse> users = users(SegmentedUserList.SEGMENT_SIZE + 10);
+        SegmentedUserList first = SegmentedUserList.of(users.subList(0, 5));
+
+        SegmentedUserList second = first.append(users.subList(5, users.size()));
+        SegmentedUserList third = second.append(Collections.singletonList(user(-1)));
+
+        assertEquals(users.subList(0, 5), first);
+        assertEquals(users, second);
+        assertEquals(users.size() + 1, third.size());
+        assertEquals(2, second.segmentCount());
+        assertTrue(second.isSegmentFull(0));
+        assertFalse(second.isSegmentFull(1));
+        assertEquals(10, second.segment(1).size());
+        assertThrows(IndexOutOfBoundsException.class, () -> second.get(users.size()));
+        assertThrows(UnsupportedOperationException.class, () -> second.add(user(-2)));
+    }
+
+    @Test
+    void replace_ShouldCopyOnlyTheTouchedSegment() {
+        List<UserResponse> users = users(SegmentedUserList.SEGMENT_SIZE * 2);
+        SegmentedUserList list = SegmentedUserList.of(users);
+        int position = SegmentedUserList.SEGMENT_SIZE + 3;
+        UserResponse replacement = user(-1);
+
+        SegmentedUserList replaced = list.replace(Collections.singletonMap(position, replacement));
+
+        assertSame(replacement, replaced.get(position));
+        assertSame(users.get(position), list.get(position));
+        assertSame(list.segmentKey(0), replaced.segmentKey(0));
+        assertNotSame(list.segmentKey(1), replaced.segmentKey(1));
+        assertSame(list, list.replace(Collections.emptyMap()));
+    }
+
+    private static List<UserResponse> users(int count) {
+        List<UserResponse> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    private static UserResponse user(int index) {
+        return UserResponse.builder()
+                .id(new UUID(0, index + 2L))
+                .token("token-" + index)
+                .isActive(true)
+                .build();
+    }
+}
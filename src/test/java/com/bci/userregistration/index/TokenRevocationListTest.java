@@ -0,0 +1,55 @@
+package com.bci.userregistration.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationListTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long NOW = 1760000000000L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+    private final TokenRevocationList revocationList = new TokenRevocationList(HOUR, clock::get);
+
+    @Test
+    void isRevoked_ShouldFindRevokedIdsAcrossBucketsAndResizes() {
+        List<UUID> revoked = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            UUID id = UUID.randomUUID();
+            revoked.add(id);
+            revocationList.revoke(id, NOW + (i % 24 + 1) * HOUR);
+        }
+
+        for (int i = 0; i < revoked.size(); i++) {
+            assertTrue(revocationList.isRevoked(revoked.get(i), NOW + (i % 24 + 1) * HOUR));
+        }
+        assertFalse(revocationList.isRevoked(UUID.randomUUID(), NOW + HOUR));
+        assertEquals(100000, revocationList.size());
+        assertTrue(revocationList.memoryBytes() <= 100000L * 16 * 4, "bytes: " + revocationList.memoryBytes());
+    }
+
+    @Test
+    void prune_ShouldDropBucketsOnceEveryTokenInThemExpired() {
+        UUID shortLived = UUID.randomUUID();
+        UUID longLived = UUID.randomUUID();
+        revocationList.revoke(shortLived, NOW + HOUR / 2);
+        revocationList.revoke(longLived, NOW + 3 * HOUR);
+        revocationList.revoke(UUID.randomUUID(), NOW - 1);
+        assertEquals(2, revocationList.size());
+
+        clock.addAndGet(2 * HOUR);
+
+        assertTrue(revocationList.isRevoked(longLived, NOW + 3 * HOUR));
+        assertEquals(1, revocationList.size());
+        assertFalse(revocationList.isRevoked(shortLived, NOW + HOUR / 2));
+    }
+}
@@ -0,0 +1,194 @@
+package com.bci.userregistration.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.event.UserRegisteredEvent;
+import com.bci.userregistration.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserReadModelTest {
+
+    private UserRepository userRepository;
+    private UserReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        readModel = new UserReadModel(userRepository, new SimpleMeterRegistry());
+        readModel.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rebuild_ShouldLoadSnapshotFromDatabase() {
+        List<UserResponse> stored = Arrays.asList(user(), user());
+        when(userRepository.findAllResponses()).thenReturn(stored);
+
+        assertFalse(readModel.isReady());
+        readModel.rebuild();
+
+        assertTrue(readModel.isReady());
+        assertEquals(stored, readModel.snapshot());
+        assertThrows(UnsupportedOperationException.class, () -> readModel.snapshot().add(user()));
+    }
+
+    @Test
+    void onUserRegistered_ShouldPublishOnlyAfterCommitAndOncePerTransaction() {
+        when(userRepository.findAllResponses()).thenReturn(Collections.emptyList());
+        readModel.rebuild();
+        List<UserResponse> before = readModel.snapshot();
+        TransactionSynchronizationManager.initSynchronization();
+
+        readModel.onUserRegistered(new UserRegisteredEvent("a@rodriguez.org", user()));
+        readModel.onUserRegistered(new UserRegisteredEvent("b@rodriguez.org", user()));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        assertTrue(readModel.snapshot().isEmpty());
+
+        synchronizations.get(0).afterCommit();
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(2, readModel.snapshot().size());
+        assertTrue(before.isEmpty());
+        assertFalse(TransactionSynchronizationManager.hasResource(readModel));
+    }
+
+    @Test
+    void onUserRegistered_WhenTransactionRollsBack_ShouldKeepSnapshot() {
+        when(userRepository.findAllResponses()).thenReturn(Collections.emptyList());
+        readModel.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+
+        readModel.onUserRegistered(new UserRegisteredEvent("a@rodriguez.org", user()));
+        TransactionSynchronizationManager.getSynchronizations().get(0)
+                .afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(readModel.snapshot().isEmpty());
+        assertFalse(TransactionSynchronizationManager.hasResource(readModel));
+    }
+
+    @Test
+    void onUserRegistered_BeforeFirstLoad_ShouldLeaveTheUsersToTheLoad() {
+        UserResponse registered = user();
+        long version = readModel.current().getVersion();
+
+        readModel.onUserRegistered(new UserRegisteredEvent("a@rodriguez.org", registered));
+
+        assertEquals(version, readModel.current().getVersion());
+        assertTrue(readModel.snapshot().isEmpty());
+
+        when(userRepository.findAllResponses()).thenReturn(Collections.singletonList(registered));
+        readModel.rebuild();
+
+        assertEquals(Collections.singletonList(registered), readModel.snapshot());
+    }
+
+    @Test
+    void checkConsistency_ShouldReportMissingUnexpectedAndMismatchedUsers() {
+        UserResponse kept = user();
+        UserResponse changed = user();
+        UserResponse removed = user();
+        when(userRepository.findAllResponses()).thenReturn(Arrays.asList(kept, changed, removed));
+        readModel.rebuild();
+
+        UserResponse changedInDb = copy(changed);
+        changedInDb.setIsActive(false);
+        List<UserResponse> stored = new ArrayList<>(Arrays.asList(copy(kept), changedInDb, user()));
+        when(userRepository.findAllResponses()).thenReturn(stored);
+
+        UserReadModelReport report = readModel.checkConsistency();
+
+        assertFalse(report.isConsistent());
+        assertEquals(1, report.getMissing());
+        assertEquals(1, report.getUnexpected());
+        assertEquals(1, report.getMismatched());
+
+        readModel.rebuild();
+        assertTrue(readModel.checkConsistency().isConsistent());
+    }
+
+    @Test
+    void applyLastLogins_ShouldPublishNewVersionOnlyWhenALoginIsNewer() {
+        UserResponse logged = user();
+        UserResponse other = user();
+        when(userRepository.findAllResponses()).thenReturn(Arrays.asList(logged, other));
+        readModel.rebuild();
+        long version = readModel.current().getVersion();
+        Date later = new Date(logged.getLastLogin().getTime() + 1000);
+
+        readModel.applyLastLogins(Collections.singletonMap(logged.getId(), later));
+
+        assertEquals(version + 1, readModel.current().getVersion());
+        assertEquals(later, readModel.snapshot().get(0).getLastLogin());
+        assertEquals(other, readModel.snapshot().get(1));
+
+        readModel.applyLastLogins(Collections.singletonMap(logged.getId(), logged.getLastLogin()));
+        assertEquals(version + 1, readModel.current().getVersion());
+    }
+
+    @Test
+    void applyLastLogins_ForAUserRegisteredAfterLoad_ShouldLeaveEarlierSnapshotsUnchanged() {
+        when(userRepository.findAllResponses()).thenReturn(Collections.singletonList(user()));
+        readModel.rebuild();
+        UserResponse registered = user();
+        readModel.onUserRegistered(new UserRegisteredEvent("a@rodriguez.org", registered));
+        List<UserResponse> before = readModel.snapshot();
+        Date later = new Date(registered.getLastLogin().getTime() + 1000);
+
+        readModel.applyLastLogins(Collections.singletonMap(registered.getId(), later));
+
+        assertEquals(later, readModel.snapshot().get(1).getLastLogin());
+        assertEquals(registered, before.get(1));
+        assertEquals(registered.getLastLogin(), before.get(1).getLastLogin());
+    }
+
+    private static UserResponse user() {
+        Date now = new Date();
+        return UserResponse.builder()
+                .id(UUID.randomUUID())
+                .created(now)
+                .modified(now)
+                .lastLogin(now)
+                .token("token")
+                .isActive(true)
+                .build();
+    }
+
+    private static UserResponse copy(UserResponse user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .created(new java.sql.Timestamp(user.getCreated().getTime()))
+                .modified(user.getModified())
+                .lastLogin(user.getLastLogin())
+                .token(user.getToken())
+                .isActive(user.getIsActive())
+                .build();
+    }
+}
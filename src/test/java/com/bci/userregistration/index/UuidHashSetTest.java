@@ -0,0 +1,35 @@
+package com.bci.userregistration.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class UuidHashSetTest {
+
+    @Test
+    void add_ShouldIgnoreDuplicatesAndKeepEntriesAfterGrowing() {
+        UuidHashSet set = new UuidHashSet();
+        UUID first = new UUID(1, 2);
+
+        assertTrue(set.add(first));
+        assertFalse(set.add(new UUID(1, 2)));
+        for (long i = 0; i < 1000; i++) {
+            set.add(new UUID(i, i + 1000));
+        }
+
+        assertTrue(set.contains(first));
+        assertTrue(set.contains(new UUID(999, 1999)));
+        assertFalse(set.contains(new UUID(2, 1)));
+        assertEquals(1001, set.size());
+    }
+
+    @Test
+    void add_ShouldRejectTheEmptyMarker() {
+        assertThrows(IllegalArgumentException.class, () -> new UuidHashSet().add(new UUID(0, 0)));
+    }
+}
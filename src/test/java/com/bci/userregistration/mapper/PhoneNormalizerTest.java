@@ -0,0 +1,43 @@
+package com.bci.userregistration.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PhoneNormalizerTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "57, 1, 1234567, +5711234567",
+            "+57, 01, 123-4567, +5711234567",
+            "0056, 9, 1234 5678, +56912345678",
+            "56, '', 912345678, +56912345678"
+    })
+    void toE164_ShouldBuildCanonicalNumberFromRegistrationFields(String contrycode, String citycode,
+                                                                 String number, String expected) {
+        assertEquals(expected, PhoneNormalizer.toE164(contrycode, citycode, number));
+    }
+
+    @Test
+    void toE164_WithoutCountryOrTooManyDigits_ShouldReturnNull() {
+        assertNull(PhoneNormalizer.toE164(null, "1", "1234567"));
+        assertNull(PhoneNormalizer.toE164("57", "1", "abc"));
+        assertNull(PhoneNormalizer.toE164("57", "1", "12345678901234"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"+56912345678", "+56 9 1234-5678", "0056912345678", " +56 (9) 1234 5678 "})
+    void parseE164_ShouldAcceptInternationalFormats(String phone) {
+        assertEquals("+56912345678", PhoneNormalizer.parseE164(phone));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"912345678", "+", "+0912345678", "+1234567890123456", ""})
+    void parseE164_WithoutInternationalPrefix_ShouldReturnNull(String phone) {
+        assertNull(PhoneNormalizer.parseE164(phone));
+    }
+}
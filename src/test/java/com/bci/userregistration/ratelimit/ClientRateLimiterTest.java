@@ -0,0 +1,119 @@
+package com.bci.userregistration.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private ClientRateLimiter limiter(double requestsPerSecond, int burst, int maxClients) {
+        ClientRateLimiter limiter = new ClientRateLimiter(new SimpleMeterRegistry(), clock::get);
+        limiter.configure(requestsPerSecond, burst, maxClients);
+        limiter.init();
+        return limiter;
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReportWaitUntilNextToken() {
+        ClientRateLimiter limiter = limiter(10, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("b"));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void tryAcquire_WhenMapIsFull_ShouldEvictIdleClientsAndShareOverflowBucket() {
+        ClientRateLimiter limiter = limiter(1, 1, 2);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("b"));
+        assertEquals(0, limiter.tryAcquire("c"));
+        assertTrue(limiter.tryAcquire("d") > 0, "el balde de desborde es compartido");
+        assertEquals(2, limiter.clientCount());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("e"));
+        assertEquals(1, limiter.clientCount());
+    }
+
+    /**
+     * Un cliente ruidoso con muchos hilos compite contra clientes con un solo hilo sobre el mismo reloj congelado
+     * por ronda: cada cliente debe obtener exactamente su ráfaga más su tasa, sin sobreadmisión por carreras del CAS.
+     */
+    @Test
+    void tryAcquire_UnderContention_ShouldShareCapacityFairlyAndNeverOverAdmit() throws Exception {
+        int requestsPerSecond = 20;
+        int burst = 40;
+        int rounds = 5;
+        int noisyThreads = 8;
+        int quietClients = 4;
+        int attemptsPerThread = 2000;
+        ClientRateLimiter limiter = limiter(requestsPerSecond, burst, 100);
+
+        int threads = noisyThreads + quietClients;
+        AtomicLongArray admitted = new AtomicLongArray(quietClients + 1);
+        CyclicBarrier start = new CyclicBarrier(threads + 1);
+        CyclicBarrier done = new CyclicBarrier(threads + 1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int slot = t < noisyThreads ? 0 : t - noisyThreads + 1;
+                String client = slot == 0 ? "key:noisy" : "key:quiet-" + slot;
+                workers.add(pool.submit(() -> {
+                    for (int round = 0; round < rounds; round++) {
+                        start.await();
+                        for (int i = 0; i < attemptsPerThread; i++) {
+                            if (limiter.tryAcquire(client) == 0) {
+                                admitted.incrementAndGet(slot);
+                            }
+                        }
+                        done.await();
+                    }
+                    return null;
+                }));
+            }
+            for (int round = 0; round < rounds; round++) {
+                start.await(10, TimeUnit.SECONDS);
+                done.await(30, TimeUnit.SECONDS);
+                clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long expected = burst + (long) requestsPerSecond * (rounds - 1);
+        for (int slot = 0; slot <= quietClients; slot++) {
+            assertEquals(expected, admitted.get(slot), "cliente " + slot);
+        }
+        long rejected = limiter.topRejected(10).stream()
+                .filter(stats -> stats.getClient().equals("key:noisy"))
+                .mapToLong(ClientRateLimitStats::getRejected)
+                .sum();
+        assertEquals((long) noisyThreads * attemptsPerThread * rounds - expected, rejected);
+    }
+}
@@ -0,0 +1,183 @@
+package com.bci.userregistration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.dto.UserSearchCriteria;
+import com.bci.userregistration.entity.Phone;
+import com.bci.userregistration.entity.User;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryTest {
+
+    private static final int USERS = 25;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PhoneRepository phoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            User user = User.builder()
+                    .id(UUID.randomUUID())
+                    .name("Usuario " + i)
+                    .email("usuario" + i + "@rodriguez.org")
+                    .password("hunter2")
+                    .token("token-" + i)
+                    .phones(new ArrayList<>())
+                    .build();
+            String number = String.valueOf(1000000 + i);
+            user.addPhone(Phone.builder().number(number).citycode("1").contrycode("57").e164("+571" + number).build());
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllResponses_ShouldIssueOneQueryWithoutLoadingEntities() {
+        // Act
+        List<UserResponse> users = userRepository.findAllResponses();
+
+        // Assert
+        assertEquals(USERS, users.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void findResponsesAfter_ShouldIssueOneQueryWithoutLoadingEntities() {
+        // Arrange
+        UUID first = userRepository.findResponsesPage(PageRequest.of(0, 1)).get(0).getId();
+        statistics.clear();
+
+        // Act
+        List<UserResponse> users = userRepository.findResponsesAfter(first, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(10, users.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void findResponsesAfter_ShouldWalkAllPagesWithoutRepeatingTheCursorRow() {
+        // Arrange
+        int pageSize = 10;
+        Set<UUID> seen = new HashSet<>();
+
+        // Act
+        List<UserResponse> page = userRepository.findResponsesPage(PageRequest.of(0, pageSize));
+        int pages = 0;
+        while (!page.isEmpty() && pages++ <= USERS / pageSize) {
+            for (UserResponse user : page) {
+                assertTrue(seen.add(user.getId()), "usuario repetido entre páginas: " + user.getId());
+            }
+            UUID last = page.get(page.size() - 1).getId();
+            page = userRepository.findResponsesAfter(last, PageRequest.of(0, pageSize));
+        }
+
+        // Assert
+        assertTrue(page.isEmpty(), "la última página debe venir vacía");
+        assertEquals(USERS, seen.size());
+    }
+
+    @Test
+    void findUserIdsByE164_ShouldReturnOwnerOfNormalizedNumber() {
+        // Act
+        List<UUID> owners = phoneRepository.findUserIdsByE164("+5711000007");
+        List<UserResponse> users = userRepository.findResponsesByIds(owners);
+
+        // Assert
+        assertEquals(1, owners.size());
+        assertEquals(owners.get(0), users.get(0).getId());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void search_ShouldWalkAllMatchesInCreatedIdOrderWithKeysetCursor() {
+        // Arrange
+        UserSearchCriteria criteria = UserSearchCriteria.builder().active(true).build();
+        List<UserResponse> seen = new ArrayList<>();
+        UserSearchCursor cursor = null;
+
+        // Act
+        // Acotado: un cursor que no avanza debe fallar la aserción, no colgar el test
+        List<UserResponse> page;
+        int pages = 0;
+        do {
+            page = userRepository.search(criteria, cursor, 10);
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = UserSearchCursor.after(page.get(page.size() - 1));
+            }
+        } while (!page.isEmpty() && ++pages <= USERS / 10 + 1);
+
+        // Assert
+        assertEquals(USERS, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            UserResponse previous = seen.get(i - 1);
+            UserResponse current = seen.get(i);
+            int byCreated = previous.getCreated().compareTo(current.getCreated());
+            assertTrue(byCreated < 0 || (byCreated == 0 && compareAsStored(previous.getId(), current.getId()) < 0));
+        }
+    }
+
+    @Test
+    void search_WithNamePrefixAndCreatedRange_ShouldApplyAllFilters() {
+        // Arrange
+        Date now = new Date();
+        UserSearchCriteria criteria = UserSearchCriteria.builder()
+                .namePrefix("Usuario 1")
+                .createdFrom(new Date(now.getTime() - 86400000L))
+                .createdTo(new Date(now.getTime() + 1000))
+                .build();
+
+        // Act
+        List<UserResponse> users = userRepository.search(criteria, null, 100);
+
+        // Assert
+        assertEquals(11, users.size());
+        assertTrue(userRepository.search(UserSearchCriteria.builder().active(false).build(), null, 100).isEmpty());
+        assertTrue(userRepository.search(UserSearchCriteria.builder().namePrefix("Usuario_").build(), null, 100).isEmpty());
+    }
+
+    // H2 compara los UUID como bytes sin signo; UUID.compareTo usa long con signo
+    private static int compareAsStored(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,124 @@
+package com.bci.userregistration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.bci.userregistration.exception.DuplicateEmailException;
+import com.bci.userregistration.exception.IdempotencyKeyConflictException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotencyCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final IdempotencyCache cache = new IdempotencyCache(new SimpleMeterRegistry(), clock::get);
+
+    @Test
+    void execute_WithConcurrentRequestsForSameKey_ShouldRunWorkOnce() throws Exception {
+        int threads = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<IdempotencyCache.Outcome<String>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> cache.execute("key", "body", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "created";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            int replayed = 0;
+            for (Future<IdempotencyCache.Outcome<String>> result : results) {
+                IdempotencyCache.Outcome<String> outcome = result.get(5, TimeUnit.SECONDS);
+                assertEquals("created", outcome.getValue());
+                replayed += outcome.isReplayed() ? 1 : 0;
+            }
+            assertEquals(1, executions.get());
+            assertEquals(threads - 1, replayed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_WithClientError_ShouldReplayTheSameError() {
+        AtomicInteger executions = new AtomicInteger();
+        DuplicateEmailException duplicate = new DuplicateEmailException("El correo ya registrado");
+
+        DuplicateEmailException first = assertThrows(DuplicateEmailException.class,
+                () -> cache.execute("key", "body", () -> {
+                    executions.incrementAndGet();
+                    throw duplicate;
+                }));
+        DuplicateEmailException second = assertThrows(DuplicateEmailException.class,
+                () -> cache.execute("key", "body", () -> {
+                    executions.incrementAndGet();
+                    return "created";
+                }));
+
+        assertSame(first, second);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_WithUnexpectedError_ShouldReleaseTheKey() {
+        assertThrows(IllegalStateException.class, () -> cache.execute("key", "body", () -> {
+            throw new IllegalStateException("sin conexión");
+        }));
+
+        IdempotencyCache.Outcome<String> retry = cache.execute("key", "body", () -> "created");
+
+        assertFalse(retry.isReplayed());
+        assertEquals("created", retry.getValue());
+    }
+
+    @Test
+    void execute_WithOtherFingerprint_ShouldRejectTheKey() {
+        cache.execute("key", "body", () -> "created");
+
+        assertThrows(IdempotencyKeyConflictException.class, () -> cache.execute("key", "other", () -> "created"));
+    }
+
+    @Test
+    void execute_ShouldEvictExpiredAndOverflowingEntries() {
+        cache.configure(2, 60);
+        cache.execute("a", "body", () -> "a");
+        cache.execute("b", "body", () -> "b");
+        cache.execute("c", "body", () -> "c");
+
+        assertEquals(2, cache.size());
+        assertFalse(cache.execute("a", "body", () -> "a").isReplayed());
+        assertTrue(cache.execute("c", "body", () -> "c").isReplayed());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertFalse(cache.execute("c", "body", () -> "c").isReplayed());
+        assertEquals(1, cache.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
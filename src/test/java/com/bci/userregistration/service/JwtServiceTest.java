@@ -1,9 +1,14 @@
 package com.bci.userregistration.service;
 
+import com.bci.userregistration.index.TokenRevocationList;
+import com.bci.userregistration.metrics.UserMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -14,10 +19,11 @@ class JwtServiceTest {
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService();
+        jwtService = new JwtService(new UserMetrics(new SimpleMeterRegistry()), new TokenRevocationList(60));
         // HS512 requires at least 512 bits (64 bytes) - this is 64+ characters
         ReflectionTestUtils.setField(jwtService, "secret", "test-secret-key-for-jwt-token-generation-and-validation-with-enough-length-for-hs512");
         ReflectionTestUtils.setField(jwtService, "expiration", 86400000L);
+        jwtService.init();
     }
 
     @Test
@@ -74,4 +80,68 @@ class JwtServiceTest {
         // Assert
         assertEquals(email, extractedEmail);
     }
+
+    @Test
+    void validateToken_WithTamperedSignatureOfCachedToken_ShouldReturnFalse() {
+        // Arrange
+        String token = jwtService.generateToken("test@example.com", UUID.randomUUID());
+        assertTrue(jwtService.validateToken(token));
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        String tampered = token.substring(0, signatureStart) + (first == 'A' ? 'B' : 'A')
+                + token.substring(signatureStart + 1);
+
+        // Act
+        boolean isValid = jwtService.validateToken(tampered);
+
+        // Assert
+        assertFalse(isValid);
+        assertTrue(jwtService.validateToken(token));
+    }
+
+    @Test
+    void validateToken_WithExpiredToken_ShouldReturnFalse() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "expiration", -1000L);
+        String token = jwtService.generateToken("test@example.com", UUID.randomUUID());
+
+        // Act
+        boolean isValid = jwtService.validateToken(token);
+
+        // Assert
+        assertFalse(isValid);
+    }
+
+    @Test
+    void validateToken_WithRevokedCachedToken_ShouldReturnFalseOnlyForThatToken() {
+        // Arrange
+        String revoked = jwtService.generateToken("test@example.com", UUID.randomUUID());
+        String other = jwtService.generateToken("test@example.com", UUID.randomUUID());
+        assertTrue(jwtService.validateToken(revoked));
+
+        // Act
+        jwtService.revoke(revoked);
+        jwtService.revoke(revoked);
+
+        // Assert
+        assertFalse(jwtService.validateToken(revoked));
+        assertTrue(jwtService.validateToken(other));
+    }
+
+    @Test
+    void validateToken_WhenTheVerifiedCacheIsFull_ShouldStillValidateEvictedTokens() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 2);
+        jwtService.init();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tokens.add(jwtService.generateToken("user" + i + "@example.com", UUID.randomUUID()));
+        }
+        tokens.forEach(jwtService::validateToken);
+
+        // Act & Assert
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals("user" + i + "@example.com", jwtService.getEmailFromToken(tokens.get(i)));
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package com.bci.userregistration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import com.bci.userregistration.entity.User;
+import com.bci.userregistration.index.UserReadModel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@Import({LastLoginBuffer.class, LastLoginBufferTest.Metrics.class})
+@TestPropertySource(properties = {"users.last-login.flush-interval-ms=3600000", "users.last-login.batch-size=2"})
+class LastLoginBufferTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private LastLoginBuffer buffer;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private UserReadModel userReadModel;
+
+    @Test
+    void flush_ShouldWriteLatestLoginPerUserWithoutTouchingModified() {
+        // Arrange
+        User first = persist("primero@rodriguez.org");
+        User second = persist("segundo@rodriguez.org");
+        User third = persist("tercero@rodriguez.org");
+        long base = first.getLastLogin().getTime();
+        Date modified = first.getModified();
+        entityManager.clear();
+
+        buffer.record(first.getId(), new Date(base + 2000));
+        buffer.record(first.getId(), new Date(base + 5000));
+        buffer.record(first.getId(), new Date(base + 3000));
+        buffer.record(second.getId(), new Date(base + 1000));
+        buffer.record(third.getId(), new Date(base + 1000));
+        assertEquals(3, buffer.pendingCount());
+
+        // Act
+        int updated = buffer.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(3, updated);
+        assertEquals(0, buffer.pendingCount());
+        User reloaded = entityManager.find(User.class, first.getId());
+        assertEquals(base + 5000, reloaded.getLastLogin().getTime());
+        assertEquals(modified.getTime(), reloaded.getModified().getTime());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<UUID, Date>> applied = ArgumentCaptor.forClass(Map.class);
+        verify(userReadModel).applyLastLogins(applied.capture());
+        assertEquals(new Date(base + 5000), applied.getValue().get(first.getId()));
+        assertEquals(3, applied.getValue().size());
+    }
+
+    @Test
+    void flush_ShouldNeverMoveLastLoginBackwards() {
+        User user = persist("atrasado@rodriguez.org");
+        User control = persist("al-dia@rodriguez.org");
+        long lastLogin = user.getLastLogin().getTime();
+        entityManager.clear();
+
+        buffer.record(user.getId(), new Date(lastLogin - 60000));
+        buffer.record(control.getId(), new Date(control.getLastLogin().getTime() + 60000));
+
+        // Sólo se escribe el control: el 0 del atrasado viene del guard y no de un id que no calza
+        assertEquals(1, buffer.flush());
+        entityManager.clear();
+        assertEquals(lastLogin, entityManager.find(User.class, user.getId()).getLastLogin().getTime());
+        assertEquals(control.getLastLogin().getTime() + 60000,
+                entityManager.find(User.class, control.getId()).getLastLogin().getTime());
+        assertEquals(0, buffer.flush());
+        verify(userReadModel, times(1)).applyLastLogins(anyMap());
+    }
+
+    private User persist(String email) {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Juan Rodriguez")
+                .email(email)
+                .password("hunter2")
+                .token("token")
+                .phones(new ArrayList<>())
+                .build();
+        entityManager.persist(user);
+        entityManager.flush();
+        return user;
+    }
+}
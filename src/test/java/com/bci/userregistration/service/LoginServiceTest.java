@@ -0,0 +1,104 @@
+package com.bci.userregistration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.bci.userregistration.dto.LoginRequest;
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.exception.InvalidCredentialsException;
+import com.bci.userregistration.repository.UserCredentials;
+import com.bci.userregistration.repository.UserRepository;
+import com.bci.userregistration.service.impl.LoginServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class LoginServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @InjectMocks
+    private LoginServiceImpl loginService;
+
+    private static final String STORED_HASH = "pbkdf2-sha256$1000$c2Fs$aGFzaA";
+    private static final String DUMMY_HASH = "pbkdf2-sha256$1000$ZHVtbXk$ZHVtbXk";
+
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    void login_WithValidCredentials_ShouldBufferLastLoginAndReturnNewToken() {
+        when(userRepository.findCredentialsByEmail("juan@rodriguez.org")).thenReturn(Optional.of(credentials(true)));
+        when(passwordHasher.matches("hunter2", STORED_HASH)).thenReturn(true);
+        when(jwtService.generateToken("juan@rodriguez.org", id)).thenReturn("nuevo-token");
+
+        UserResponse response = loginService.login(new LoginRequest("juan@rodriguez.org", "hunter2"));
+
+        assertEquals(id, response.getId());
+        assertEquals("nuevo-token", response.getToken());
+        verify(lastLoginBuffer).record(eq(id), eq(response.getLastLogin()));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void login_WithWrongPassword_ShouldThrowWithoutBuffering() {
+        when(userRepository.findCredentialsByEmail("juan@rodriguez.org")).thenReturn(Optional.of(credentials(true)));
+        when(passwordHasher.matches("hunter3", STORED_HASH)).thenReturn(false);
+
+        InvalidCredentialsException exception = assertThrows(InvalidCredentialsException.class,
+                () -> loginService.login(new LoginRequest("juan@rodriguez.org", "hunter3")));
+
+        assertEquals("Correo o contraseña inválidos", exception.getMessage());
+        verify(lastLoginBuffer, never()).record(any(), any());
+    }
+
+    @Test
+    void login_WithInactiveUser_ShouldVerifyAgainstDummyHashAndThrow() {
+        when(userRepository.findCredentialsByEmail("juan@rodriguez.org")).thenReturn(Optional.of(credentials(false)));
+        when(passwordHasher.getDummyHash()).thenReturn(DUMMY_HASH);
+
+        assertThrows(InvalidCredentialsException.class,
+                () -> loginService.login(new LoginRequest("juan@rodriguez.org", "hunter2")));
+        verify(passwordHasher).matches("hunter2", DUMMY_HASH);
+        verify(passwordHasher, never()).matches("hunter2", STORED_HASH);
+    }
+
+    @Test
+    void login_WithUnknownEmail_ShouldVerifyAgainstDummyHashAndThrow() {
+        when(userRepository.findCredentialsByEmail("nadie@rodriguez.org")).thenReturn(Optional.empty());
+        when(passwordHasher.getDummyHash()).thenReturn(DUMMY_HASH);
+        when(passwordHasher.matches("hunter2", DUMMY_HASH)).thenReturn(true);
+
+        assertThrows(InvalidCredentialsException.class,
+                () -> loginService.login(new LoginRequest("nadie@rodriguez.org", "hunter2")));
+        verify(passwordHasher).matches("hunter2", DUMMY_HASH);
+        verify(lastLoginBuffer, never()).record(any(), any());
+    }
+
+    private UserCredentials credentials(boolean active) {
+        Date created = new Date();
+        return new UserCredentials(id, "juan@rodriguez.org", STORED_HASH, created, created, active);
+    }
+}
@@ -0,0 +1,121 @@
+package com.bci.userregistration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        passwordHasher = new PasswordHasher(meterRegistry);
+        ReflectionTestUtils.setField(passwordHasher, "poolSize", 2);
+        ReflectionTestUtils.setField(passwordHasher, "fixedIterations", 1000);
+        passwordHasher.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void hash_ShouldUseRandomSaltAndMatchOnlyTheOriginalPassword() {
+        String first = passwordHasher.hash("hunter2");
+        String second = passwordHasher.hash("hunter2");
+
+        assertTrue(first.startsWith(PasswordHasher.PREFIX + "$1000$"));
+        assertNotEquals(first, second);
+        assertTrue(passwordHasher.matches("hunter2", first));
+        assertTrue(passwordHasher.matches("hunter2", second));
+        assertFalse(passwordHasher.matches("hunter3", first));
+    }
+
+    @Test
+    void matches_ShouldKeepVerifyingHashesWithTheirOwnIterations() {
+        String stored = passwordHasher.hash("hunter2");
+        ReflectionTestUtils.setField(passwordHasher, "iterations", 2000);
+
+        assertTrue(passwordHasher.matches("hunter2", stored));
+        assertTrue(passwordHasher.hash("hunter2").startsWith(PasswordHasher.PREFIX + "$2000$"));
+    }
+
+    @Test
+    void matches_WithPlaintextStoredValue_ShouldNeverMatch() {
+        assertFalse(passwordHasher.matches("hunter2", "hunter2"));
+        assertFalse(passwordHasher.matches("hunter2", null));
+    }
+
+    @Test
+    void matches_WithMalformedHash_ShouldReturnFalseInsteadOfThrowing() {
+        assertFalse(passwordHasher.matches("hunter2", PasswordHasher.PREFIX + "$muchas$c2Fs$aGFzaA"));
+        assertFalse(passwordHasher.matches("hunter2", PasswordHasher.PREFIX + "$1000$no*base64$aGFzaA"));
+        assertFalse(passwordHasher.matches("hunter2", PasswordHasher.PREFIX + "$0$c2Fs$aGFzaA"));
+        assertFalse(passwordHasher.matches("hunter2", PasswordHasher.PREFIX + "$1000$c2Fs"));
+    }
+
+    @Test
+    void getDummyHash_ShouldBeAWellFormedHashWithCurrentIterations() {
+        String dummy = passwordHasher.getDummyHash();
+
+        assertTrue(dummy.startsWith(PasswordHasher.PREFIX + "$1000$"));
+        assertFalse(passwordHasher.matches("hunter2", dummy));
+    }
+
+    @Test
+    void hashAll_ShouldKeepRequestOrder() {
+        List<String> passwords = Arrays.asList("uno111", "dos222", "tres333", "cuatro444", "cinco555");
+
+        List<String> hashes = passwordHasher.hashAll(passwords);
+
+        assertEquals(passwords.size(), hashes.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(passwordHasher.matches(passwords.get(i), hashes.get(i)));
+        }
+    }
+
+    @Test
+    void hashAll_ShouldLeaveAThreadFreeForOnlineHashes() throws Exception {
+        // Arrange: pool de 2 hilos, los lotes usan a lo sumo 1
+        ReflectionTestUtils.setField(passwordHasher, "iterations", 20000);
+        List<String> passwords = Collections.nCopies(200, "lote123");
+        CompletableFuture<List<String>> batch = CompletableFuture.supplyAsync(() -> passwordHasher.hashAll(passwords));
+        while (meterRegistry.get("users.password.hash.bulk.in_flight").gauge().value() < 1) {
+            Thread.yield();
+        }
+
+        // Act
+        String online = passwordHasher.hash("hunter2");
+
+        // Assert
+        assertTrue(passwordHasher.matches("hunter2", online));
+        assertFalse(batch.isDone());
+        assertEquals(1.0, meterRegistry.get("users.password.hash.bulk.limit").gauge().value());
+        assertEquals(200, batch.get(60, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    void calibrate_ShouldReachTheConfiguredMinimum() {
+        ReflectionTestUtils.setField(passwordHasher, "targetMillis", 1L);
+        ReflectionTestUtils.setField(passwordHasher, "minIterations", 50000);
+
+        assertEquals(50000, passwordHasher.calibrate());
+    }
+}
@@ -0,0 +1,97 @@
+package com.bci.userregistration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bci.userregistration.entity.Phone;
+import com.bci.userregistration.entity.PhoneNumber;
+import com.bci.userregistration.entity.PhoneStorage;
+import com.bci.userregistration.entity.User;
+
+@DataJpaTest
+@Import(PhoneStorageMigration.class)
+@TestPropertySource(properties = {
+        "users.phones.storage=INLINE",
+        "users.phones.migration.chunk-size=1"
+})
+class PhoneStorageMigrationTest {
+
+    @Autowired
+    private PhoneStorageMigration migration;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void migrate_ShouldMovePhonesToInlineColumnWithoutTouchingModified() {
+        // Arrange
+        User tablePhones = user("tabla@rodriguez.org");
+        tablePhones.addPhone(Phone.builder().number("1234567").citycode("1").contrycode("57").e164("+5711234567").build());
+        tablePhones.addPhone(Phone.builder().number("7654321").citycode("2").contrycode("56").e164("+5627654321").build());
+        User inlinePhones = user("inline@rodriguez.org");
+        inlinePhones.getInlinePhones().add(new PhoneNumber("5555555", "3", "54", "+5435555555"));
+        User noPhones = user("sin-telefonos@rodriguez.org");
+        entityManager.persist(tablePhones);
+        entityManager.persist(inlinePhones);
+        entityManager.persist(noPhones);
+        entityManager.flush();
+        Date modified = tablePhones.getModified();
+        entityManager.clear();
+
+        // Act
+        int migrated = migration.migrate();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, migrated);
+        User reloaded = entityManager.find(User.class, tablePhones.getId());
+        assertTrue(reloaded.getPhones().isEmpty());
+        assertEquals(Arrays.asList(new PhoneNumber("1234567", "1", "57", "+5711234567"),
+                        new PhoneNumber("7654321", "2", "56", "+5627654321")),
+                reloaded.getInlinePhones());
+        assertEquals(modified.getTime(), reloaded.getModified().getTime());
+        assertEquals(1, entityManager.find(User.class, inlinePhones.getId()).getInlinePhones().size());
+        assertEquals(0L, entityManager.getEntityManager()
+                .createQuery("select count(p) from Phone p", Long.class).getSingleResult());
+        assertEquals(Arrays.asList("+5627654321", "+5711234567"), entityManager.getEntityManager()
+                .createQuery("select e from User u join u.inlinePhoneE164s e where u.id = :id order by e", String.class)
+                .setParameter("id", tablePhones.getId())
+                .getResultList());
+        assertEquals(0, migration.migrate());
+    }
+
+    @Test
+    void migrate_InTableMode_ShouldRefuseToMovePhones() {
+        // Arrange
+        PhoneStorageMigration tableMode = new PhoneStorageMigration(entityManager.getEntityManager(), null);
+        ReflectionTestUtils.setField(tableMode, "phoneStorage", PhoneStorage.TABLE);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, tableMode::migrate);
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .name("Juan Rodriguez")
+                .email(email)
+                .password("hunter2")
+                .token("token")
+                .phones(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.bci.userregistration.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Registra las sentencias JDBC que ejecuta el hilo actual. Envuelve el {@link DataSource} de la
+ * aplicación en proxies de {@link Connection} y {@link Statement}, así que ve tanto el SQL de Hibernate
+ * como el de {@code JdbcTemplate}; cada {@code execute*} y cada {@code executeBatch} cuenta como una
+ * sentencia. Las tareas en otros hilos (flush de last_login, índices) no se registran.
+ *
+ * <p>Se activa con {@code @Import(SqlStatementRecorder.class)} en un {@code @SpringBootTest}.
+ */
+class SqlStatementRecorder implements BeanPostProcessor {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TABLE = Pattern.compile("^(insert into|update|delete from) (\\w+)");
+    private static final Pattern SELECT_FROM = Pattern.compile("^select .*? from (\\w+)");
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource) {
+            return proxy(bean, ClassUtils.getAllInterfaces(bean), null);
+        }
+        return bean;
+    }
+
+    /**
+     * Ejecuta {@code action} y retorna las sentencias que emitió, en orden.
+     */
+    static List<String> record(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            action.run();
+        } finally {
+            RECORDING.remove();
+        }
+        return statements;
+    }
+
+    /**
+     * Forma de cada sentencia para comparar sin depender de alias ni listas de columnas:
+     * {@code "select from users"}, {@code "insert into phones"}. Las llamadas a secuencias se descartan,
+     * porque dependen de cuántos ids quedan en el bloque pre-asignado y no del código bajo prueba.
+     */
+    static List<String> shapes(List<String> statements) {
+        return statements.stream()
+                .map(SqlStatementRecorder::shape)
+                .filter(shape -> !shape.contains("next value for") && !shape.contains("nextval"))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Mensaje de falla con el diff de formas ({@code -} esperada y no ejecutada, {@code +} ejecutada y no
+     * esperada) y el SQL completo ejecutado.
+     */
+    static String describe(String operation, List<String> expectedShapes, List<String> statements) {
+        StringBuilder message = new StringBuilder(operation)
+                .append(": ").append(statements.size()).append(" sentencias SQL\n")
+                .append(diff(expectedShapes, shapes(statements)))
+                .append("SQL ejecutado:\n");
+        for (int i = 0; i < statements.size(); i++) {
+            message.append(String.format("  %2d. %s%n", i + 1, statements.get(i)));
+        }
+        return message.toString();
+    }
+
+    // Diff por líneas sobre la subsecuencia común más larga
+    static String diff(List<String> expected, List<String> actual) {
+        int[][] common = new int[expected.size() + 1][actual.size() + 1];
+        for (int i = expected.size() - 1; i >= 0; i--) {
+            for (int j = actual.size() - 1; j >= 0; j--) {
+                common[i][j] = expected.get(i).equals(actual.get(j))
+                        ? common[i + 1][j + 1] + 1
+                        : Math.max(common[i + 1][j], common[i][j + 1]);
+            }
+        }
+        StringBuilder diff = new StringBuilder();
+        int i = 0;
+        int j = 0;
+        while (i < expected.size() || j < actual.size()) {
+            if (i < expected.size() && j < actual.size() && expected.get(i).equals(actual.get(j))) {
+                diff.append("    ").append(expected.get(i++)).append('\n');
+                j++;
+            } else if (i < expected.size() && (j == actual.size() || common[i + 1][j] >= common[i][j + 1])) {
+                diff.append("  - ").append(expected.get(i++)).append('\n');
+            } else {
+                diff.append("  + ").append(actual.get(j++)).append('\n');
+            }
+        }
+        return diff.toString();
+    }
+
+    private static String shape(String sql) {
+        String normalized = sql.toLowerCase(Locale.ROOT);
+        Matcher table = TABLE.matcher(normalized);
+        if (table.find()) {
+            return table.group(1) + " " + table.group(2);
+        }
+        Matcher select = SELECT_FROM.matcher(normalized);
+        if (select.find()) {
+            return "select from " + select.group(1);
+        }
+        return normalized;
+    }
+
+    private static void recordStatement(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(WHITESPACE.matcher(sql.trim()).replaceAll(" "));
+        }
+    }
+
+    private static Object proxy(Object target, Class<?>[] interfaces, String sql) {
+        return Proxy.newProxyInstance(SqlStatementRecorder.class.getClassLoader(), interfaces,
+                new JdbcHandler(target, sql));
+    }
+
+    /**
+     * Delegado común para DataSource, Connection y Statement. {@code sql} es el texto del
+     * PreparedStatement; {@code batch} acumula los {@code addBatch(String)} de un Statement simple.
+     */
+    private static final class JdbcHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String sql;
+        private final List<String> batch = new ArrayList<>();
+
+        JdbcHandler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (target instanceof Statement) {
+                if (name.equals("addBatch") && args != null) {
+                    batch.add((String) args[0]);
+                } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                    recordStatement(sql != null ? sql : String.join("; ", batch));
+                    batch.clear();
+                } else if (name.startsWith("execute")) {
+                    recordStatement(args != null && args[0] instanceof String ? (String) args[0] : sql);
+                } else if (name.equals("clearBatch")) {
+                    batch.clear();
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection && name.equals("getConnection") && target instanceof DataSource) {
+                return proxy(result, new Class<?>[]{Connection.class}, null);
+            }
+            if (result instanceof Statement && target instanceof Connection) {
+                String statementSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return proxy(result, new Class<?>[]{method.getReturnType()}, statementSql);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.bci.userregistration.service;
+
+import static com.bci.userregistration.service.UserRequests.builder;
+import static com.bci.userregistration.service.UserRequests.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bci.userregistration.dto.BatchRegistrationResponse;
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.exception.ServiceOverloadedException;
+import com.bci.userregistration.exception.ValidationException;
+import com.bci.userregistration.id.UserIdGenerator;
+import com.bci.userregistration.index.EmailIndex;
+import com.bci.userregistration.mapper.UserMapper;
+import com.bci.userregistration.repository.UserRepository;
+import com.bci.userregistration.service.impl.UserBatchServiceImpl;
+import com.bci.userregistration.validation.UserValidator;
+
+class UserBatchServiceTest {
+
+    private UserRepository userRepository;
+    private EmailIndex emailIndex;
+    private PasswordHasher passwordHasher;
+    private UserBatchServiceImpl batchService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        emailIndex = mock(EmailIndex.class);
+        when(emailIndex.isReady()).thenReturn(true);
+        when(emailIndex.mightContain(anyString())).thenReturn(true);
+        JwtService jwtService = mock(JwtService.class);
+        passwordHasher = mock(PasswordHasher.class);
+        when(passwordHasher.hashAll(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .map(password -> "hash-" + password)
+                .collect(Collectors.toList()));
+        when(jwtService.generateToken(anyString(), any(UUID.class))).thenReturn("mock-jwt-token");
+
+        UserValidator userValidator = new UserValidator(Collections.emptyList());
+        ReflectionTestUtils.setField(userValidator, "emailPattern", "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+        ReflectionTestUtils.setField(userValidator, "passwordPattern", "^.{6,}$");
+        ReflectionTestUtils.setField(userValidator, "passwordMessage", "La contraseña debe tener al menos 6 caracteres");
+        userValidator.init();
+
+        UserBulkWriter bulkWriter = new UserBulkWriter(Validation.buildDefaultValidatorFactory().getValidator(),
+                userValidator, userRepository, emailIndex, new UserMapper(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(EntityManager.class),
+                mock(ApplicationEventPublisher.class));
+        batchService = new UserBatchServiceImpl(bulkWriter, jwtService, new UserIdGenerator(), passwordHasher);
+        ReflectionTestUtils.setField(batchService, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(batchService, "chunkSize", 2);
+    }
+
+    @Test
+    void registerUsers_ShouldReportResultPerItemInRequestOrder() {
+        // Arrange
+        when(userRepository.findExistingEmails(anyCollection()))
+                .thenReturn(Collections.singletonList("existente@rodriguez.org"));
+
+        List<UserRegistrationRequest> requests = Arrays.asList(
+                request("juan@rodriguez.org"),
+                request("correo-invalido"),
+                request("juan@rodriguez.org"),
+                request("existente@rodriguez.org"),
+                builder("ana@rodriguez.org").password("123").build());
+
+        // Act
+        BatchRegistrationResponse response = batchService.registerUsers(requests);
+
+        // Assert
+        assertEquals(1, response.getCreated());
+        assertEquals(4, response.getRejected());
+        assertEquals(201, response.getResults().get(0).getStatus());
+        assertNotNull(response.getResults().get(0).getUser().getId());
+        assertEquals(400, response.getResults().get(1).getStatus());
+        assertEquals("El formato del correo es inválido", response.getResults().get(1).getMensaje());
+        assertEquals(409, response.getResults().get(2).getStatus());
+        assertEquals(409, response.getResults().get(3).getStatus());
+        assertEquals(400, response.getResults().get(4).getStatus());
+        assertEquals(4, response.getResults().get(4).getIndex());
+
+        // Un IN por bloque con candidatos válidos (el tercer bloque sólo tiene un inválido)
+        verify(userRepository, times(2)).findExistingEmails(anyCollection());
+        verify(userRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void registerUsers_WhenALaterChunkFails_ShouldKeepCommittedResultsAndReportTheChunkAsFailed() {
+        // Arrange
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Collections.emptyList());
+        when(passwordHasher.hashAll(anyList()))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                        .map(password -> "hash-" + password)
+                        .collect(Collectors.toList()))
+                .thenThrow(new ServiceOverloadedException("El servicio está saturado, intente nuevamente más tarde", 1));
+
+        List<UserRegistrationRequest> requests = Arrays.asList(
+                request("uno@rodriguez.org"),
+                request("dos@rodriguez.org"),
+                request("tres@rodriguez.org"),
+                request("correo-invalido"));
+
+        // Act
+        BatchRegistrationResponse response = batchService.registerUsers(requests);
+
+        // Assert
+        assertEquals(2, response.getCreated());
+        assertEquals(201, response.getResults().get(1).getStatus());
+        assertEquals(503, response.getResults().get(2).getStatus());
+        assertEquals("El servicio está saturado, intente nuevamente más tarde", response.getResults().get(2).getMensaje());
+        assertEquals(400, response.getResults().get(3).getStatus());
+    }
+
+    @Test
+    void registerUsers_WithEmailIndexNotLoaded_ShouldNotCountFalsePositives() {
+        // Arrange
+        when(emailIndex.isReady()).thenReturn(false);
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        // Act
+        BatchRegistrationResponse response = batchService.registerUsers(Arrays.asList(
+                request("uno@rodriguez.org"), request("dos@rodriguez.org")));
+
+        // Assert
+        assertEquals(2, response.getCreated());
+        verify(userRepository).findExistingEmails(Arrays.asList("uno@rodriguez.org", "dos@rodriguez.org"));
+        verify(emailIndex, never()).mightContain(anyString());
+        verify(emailIndex, never()).recordFalsePositive();
+    }
+
+    @Test
+    void registerUsers_AboveMaxSize_ShouldThrowValidationException() {
+        List<UserRegistrationRequest> requests = Collections.nCopies(11, request("juan@rodriguez.org"));
+
+        assertThrows(ValidationException.class, () -> batchService.registerUsers(requests));
+        verify(userRepository, never()).findExistingEmails(anyCollection());
+    }
+}
@@ -0,0 +1,98 @@
+package com.bci.userregistration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bci.userregistration.entity.User;
+import com.bci.userregistration.index.EmailIndex;
+import com.bci.userregistration.mapper.UserMapper;
+import com.bci.userregistration.repository.UserRepository;
+import com.bci.userregistration.validation.UserValidator;
+
+class UserBulkWriterTest {
+
+    private UserRepository userRepository;
+    private UserBulkWriter bulkWriter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        bulkWriter = new UserBulkWriter(Validation.buildDefaultValidatorFactory().getValidator(),
+                new UserValidator(Collections.emptyList()), userRepository, mock(EmailIndex.class), new UserMapper(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(EntityManager.class),
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void saveAll_WhenAnEmailWasTakenConcurrently_ShouldIsolateItAndCreateTheRest() {
+        // Arrange
+        List<BulkUser> users = Arrays.asList(user("uno@rodriguez.org"), user("tomado@rodriguez.org"));
+        when(userRepository.saveAll(anyList()))
+                .thenThrow(violation(User.EMAIL_CONSTRAINT))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(violation(User.EMAIL_CONSTRAINT));
+
+        // Act
+        bulkWriter.saveAll(users, false);
+
+        // Assert
+        assertNotNull(users.get(0).getCreated());
+        assertEquals(users.get(0).getUserId(), users.get(0).getCreated().getId());
+        assertFalse(users.get(0).isDuplicate());
+        assertNull(users.get(1).getCreated());
+        assertTrue(users.get(1).isDuplicate());
+    }
+
+    @Test
+    void saveAll_WithAnotherViolation_ShouldKeepTheUsersAlreadyCreatedAndRethrow() {
+        // Arrange
+        List<BulkUser> users = Arrays.asList(user("uno@rodriguez.org"), user("dos@rodriguez.org"));
+        when(userRepository.saveAll(anyList()))
+                .thenThrow(violation(User.EMAIL_CONSTRAINT))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(violation("fk_phones_user"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> bulkWriter.saveAll(users, false));
+        assertNotNull(users.get(0).getCreated());
+        assertNull(users.get(1).getCreated());
+        assertFalse(users.get(1).isDuplicate());
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("violation"), constraint));
+    }
+
+    private static BulkUser user(String email) {
+        BulkUser user = new BulkUser(UserRequests.request(email));
+        user.setUserId(UUID.randomUUID());
+        user.setToken("mock-jwt-token");
+        user.setPasswordHash("hash-hunter2");
+        return user;
+    }
+}
@@ -0,0 +1,50 @@
+package com.bci.userregistration.service;
+
+import static com.bci.userregistration.service.UserRequests.builder;
+import static com.bci.userregistration.service.UserRequests.phones;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.bci.userregistration.dto.UserResponse;
+
+// Registra usuarios confirmados en la base del contexto; se descarta al terminar
+@SpringBootTest
+@DirtiesContext
+class UserPhoneLookupTest {
+
+    @Autowired
+    private IUserService userService;
+
+    @Test
+    void findByPhone_ShouldReturnTheOwnerInBothInputFormats() {
+        // Arrange
+        int first = ThreadLocalRandom.current().nextInt(1000000, 9999998);
+        String number = String.valueOf(first);
+        UserResponse owner = userService.registerUser(builder("telefono-" + UUID.randomUUID() + "@rodriguez.org")
+                .phones(phones(first, 1))
+                .build());
+        userService.registerUser(builder("telefono-" + UUID.randomUUID() + "@rodriguez.org")
+                .phones(phones(first + 1, 1))
+                .build());
+
+        // Act
+        List<UserResponse> bySplitFields = userService.findByPhone(number, "01", "57");
+        List<UserResponse> byE164 = userService.findByPhone("+57 1 " + number, null, null);
+
+        // Assert
+        assertEquals(1, bySplitFields.size());
+        assertEquals(owner.getId(), bySplitFields.get(0).getId());
+        assertEquals(1, byE164.size());
+        assertEquals(owner.getId(), byE164.get(0).getId());
+        assertTrue(userService.findByPhone("+56 9 " + number, null, null).isEmpty());
+    }
+}
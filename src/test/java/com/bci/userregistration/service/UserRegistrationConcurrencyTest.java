@@ -0,0 +1,75 @@
+package com.bci.userregistration.service;
+
+import static com.bci.userregistration.service.UserRequests.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.bci.userregistration.exception.DuplicateEmailException;
+import com.bci.userregistration.repository.UserRepository;
+
+// Confirma el usuario en la base y en los índices en memoria del contexto; se descarta el contexto al
+// terminar para que no lo vean otras clases de test
+@SpringBootTest
+@DirtiesContext
+class UserRegistrationConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private IUserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void registerUser_SameEmailConcurrently_ShouldCreateOneUserAndRejectTheRestAsDuplicates() throws Exception {
+        // Arrange
+        String email = "concurrente-" + UUID.randomUUID() + "@rodriguez.org";
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return userService.registerUser(request(email));
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        int duplicates = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                created++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof DuplicateEmailException, "excepción inesperada: " + e.getCause());
+                assertEquals("El correo ya registrado", e.getCause().getMessage());
+                duplicates++;
+            }
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1, created);
+        assertEquals(THREADS - 1, duplicates);
+        assertTrue(userRepository.findByEmail(email).isPresent());
+    }
+}
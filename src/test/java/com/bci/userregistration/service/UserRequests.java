@@ -0,0 +1,44 @@
+package com.bci.userregistration.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bci.userregistration.dto.PhoneDTO;
+import com.bci.userregistration.dto.UserRegistrationRequest;
+
+/**
+ * Solicitudes de registro para los tests de servicios: "Juan Rodriguez", contraseña "hunter2" y el
+ * teléfono +57 1 1234567. Cada test cambia sólo los campos que le importan sobre {@link #builder}.
+ */
+final class UserRequests {
+
+    private UserRequests() {
+    }
+
+    static UserRegistrationRequest.UserRegistrationRequestBuilder builder(String email) {
+        return UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email(email)
+                .password("hunter2")
+                .phones(phones(1234567, 1));
+    }
+
+    static UserRegistrationRequest request(String email) {
+        return builder(email).build();
+    }
+
+    /**
+     * {@code count} teléfonos de Bogotá (+57 1) con números consecutivos desde {@code first}.
+     */
+    static List<PhoneDTO> phones(int first, int count) {
+        List<PhoneDTO> phones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            phones.add(PhoneDTO.builder()
+                    .number(String.valueOf(first + i))
+                    .citycode("1")
+                    .contrycode("57")
+                    .build());
+        }
+        return phones;
+    }
+}
@@ -0,0 +1,159 @@
+package com.bci.userregistration.service;
+
+import static com.bci.userregistration.service.UserRequests.builder;
+import static com.bci.userregistration.service.UserRequests.phones;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.bci.userregistration.dto.UserRegistrationRequest;
+import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.dto.UserSearchCriteria;
+import com.bci.userregistration.repository.UserRepository;
+
+/**
+ * Presupuesto de sentencias SQL por llamada a {@link IUserService} contra H2. Un N+1 (por ejemplo,
+ * {@code buildUserResponse} recorriendo {@code User.phones}) hace crecer la cantidad de sentencias con
+ * los datos y falla con el diff de las sentencias esperadas contra las ejecutadas.
+ */
+@SpringBootTest
+@Import(SqlStatementRecorder.class)
+class UserServiceSqlBudgetTest {
+
+    // Insert del usuario, batch de teléfonos y, a lo sumo, una llamada a phone_seq al agotar el bloque
+    private static final int SIGN_UP_BUDGET = 3;
+
+    private static final List<String> SIGN_UP = Arrays.asList("insert into users", "insert into phones");
+    private static final List<String> SELECT_USERS = Collections.singletonList("select from users");
+
+    @Autowired
+    private IUserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final String name = "Presupuesto " + UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            userService.registerUser(builder("presupuesto-" + UUID.randomUUID() + "@rodriguez.org")
+                    .name(name)
+                    .phones(phones(1234560, 3))
+                    .build());
+        }
+    }
+
+    @Test
+    void registerUser_ShouldStayWithinBudgetWhateverThePhoneCount() {
+        for (int phones : new int[]{1, 10}) {
+            // Arrange
+            UserRegistrationRequest request = builder("presupuesto-" + UUID.randomUUID() + "@rodriguez.org")
+                    .name(name)
+                    .phones(phones(1234560, phones))
+                    .build();
+
+            // Act
+            List<String> statements = SqlStatementRecorder.record(() -> userService.registerUser(request));
+
+            // Assert
+            String operation = "registerUser con " + phones + " teléfonos";
+            assertTrue(statements.size() <= SIGN_UP_BUDGET, SqlStatementRecorder.describe(
+                    operation + " (presupuesto " + SIGN_UP_BUDGET + ")", SIGN_UP, statements));
+            assertEquals(SIGN_UP, SqlStatementRecorder.shapes(statements),
+                    SqlStatementRecorder.describe(operation, SIGN_UP, statements));
+        }
+    }
+
+    @Test
+    void findAll_WithReadModelLoaded_ShouldNotQueryTheDatabase() {
+        // Act
+        List<UserResponse> users = new ArrayList<>();
+        List<String> statements = SqlStatementRecorder.record(() -> users.addAll(userService.findAll()));
+
+        // Assert
+        assertTrue(users.size() >= 3);
+        assertEquals(Collections.emptyList(), SqlStatementRecorder.shapes(statements),
+                SqlStatementRecorder.describe("findAll", Collections.emptyList(), statements));
+    }
+
+    // findAll sólo va a la base mientras el listado en memoria no está cargado, lo que en un contexto ya
+    // iniciado no ocurre: se mide directamente la consulta que usa en ese caso (y al cargar el listado)
+    @Test
+    void findAllResponses_ShouldIssueExactlyOneSelect() {
+        // Act
+        List<UserResponse> users = new ArrayList<>();
+        List<String> statements = SqlStatementRecorder.record(() -> users.addAll(userRepository.findAllResponses()));
+
+        // Assert
+        assertTrue(users.size() >= 3);
+        assertEquals(SELECT_USERS, SqlStatementRecorder.shapes(statements),
+                SqlStatementRecorder.describe("findAllResponses", SELECT_USERS, statements));
+    }
+
+    @Test
+    void findPage_ShouldIssueExactlyOneSelect() {
+        // Act
+        List<UserResponse> page = new ArrayList<>();
+        List<String> statements = SqlStatementRecorder.record(() -> page.addAll(userService.findPage(null, 50)));
+
+        // Assert
+        assertTrue(page.size() >= 3);
+        assertEquals(SELECT_USERS, SqlStatementRecorder.shapes(statements),
+                SqlStatementRecorder.describe("findPage", SELECT_USERS, statements));
+    }
+
+    @Test
+    void streamAll_ShouldIssueExactlyOneSelect() {
+        // Act
+        List<UserResponse> users = new ArrayList<>();
+        List<String> statements = SqlStatementRecorder.record(() -> userService.streamAll(users::add));
+
+        // Assert
+        assertTrue(users.size() >= 3);
+        assertEquals(SELECT_USERS, SqlStatementRecorder.shapes(statements),
+                SqlStatementRecorder.describe("streamAll", SELECT_USERS, statements));
+    }
+
+    @Test
+    void search_ShouldIssueExactlyOneSelect() {
+        // Arrange
+        UserSearchCriteria criteria = UserSearchCriteria.builder().namePrefix(name).build();
+
+        // Act
+        List<UserResponse> users = new ArrayList<>();
+        List<String> statements = SqlStatementRecorder.record(() -> users.addAll(userService.search(criteria, null, 50)));
+
+        // Assert
+        assertEquals(3, users.size());
+        assertEquals(SELECT_USERS, SqlStatementRecorder.shapes(statements),
+                SqlStatementRecorder.describe("search", SELECT_USERS, statements));
+    }
+
+    @Test
+    void findByPhone_ShouldResolveIdsAndUsersWithOneSelectEach() {
+        // Arrange
+        List<String> expected = Arrays.asList("select from phones", "select from users");
+
+        // Act
+        List<UserResponse> users = new ArrayList<>();
+        List<String> statements = SqlStatementRecorder.record(
+                () -> users.addAll(userService.findByPhone("1234560", "1", "57")));
+
+        // Assert
+        assertTrue(users.size() >= 3);
+        assertEquals(expected, SqlStatementRecorder.shapes(statements),
+                SqlStatementRecorder.describe("findByPhone", expected, statements));
+    }
+}
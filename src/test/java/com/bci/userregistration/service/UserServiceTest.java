@@ -6,29 +6,51 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.UUID;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.bci.userregistration.dto.PhoneDTO;
 import com.bci.userregistration.dto.UserRegistrationRequest;
 import com.bci.userregistration.dto.UserResponse;
+import com.bci.userregistration.entity.PhoneStorage;
 import com.bci.userregistration.entity.User;
+import com.bci.userregistration.event.UserRegisteredEvent;
 import com.bci.userregistration.exception.DuplicateEmailException;
 import com.bci.userregistration.exception.ValidationException;
+import com.bci.userregistration.id.UserIdGenerator;
+import com.bci.userregistration.index.UserReadModel;
+import com.bci.userregistration.mapper.UserMapper;
+import com.bci.userregistration.metrics.UserMetrics;
+import com.bci.userregistration.repository.PhoneRepository;
 import com.bci.userregistration.repository.UserRepository;
 import com.bci.userregistration.service.impl.UserServiceImpl;
+import com.bci.userregistration.validation.UserValidator;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -36,17 +58,46 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PhoneRepository phoneRepository;
+
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserMetrics metrics;
+
+    @Mock
+    private UserReadModel userReadModel;
+
+    @Spy
+    private UserValidator userValidator = new UserValidator(Collections.emptyList());
+
+    @Spy
+    private UserMapper userMapper = new UserMapper();
+
+    @Spy
+    private UserIdGenerator userIdGenerator = new UserIdGenerator();
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(userService, "emailPattern", "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
-        ReflectionTestUtils.setField(userService, "passwordPattern", "^.{6,}$");
-        ReflectionTestUtils.setField(userService, "passwordMessage", "La contraseña debe tener al menos 6 caracteres");
+        ReflectionTestUtils.setField(userValidator, "emailPattern", "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+        ReflectionTestUtils.setField(userValidator, "passwordPattern", "^.{6,}$");
+        ReflectionTestUtils.setField(userValidator, "passwordMessage", "La contraseña debe tener al menos 6 caracteres");
+        userValidator.init();
+        lenient().when(passwordHasher.hash(anyString())).thenReturn("pbkdf2-sha256$1$c2Fs$aGFzaA");
     }
 
     @Test
@@ -75,8 +126,7 @@ class UserServiceTest {
                 .isActive(true)
                 .build();
 
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         when(jwtService.generateToken(anyString(), any(UUID.class))).thenReturn("mock-jwt-token");
 
         
@@ -88,9 +138,10 @@ class UserServiceTest {
         assertEquals("mock-jwt-token", response.getToken());
         assertTrue(response.getIsActive());
         
-        verify(userRepository).existsByEmail("juan@rodriguez.org");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository).saveAndFlush(any(User.class));
         verify(jwtService).generateToken(anyString(), any(UUID.class));
+        verify(eventPublisher).publishEvent(any(UserRegisteredEvent.class));
     }
 
     @Test
@@ -103,7 +154,10 @@ class UserServiceTest {
                 .phones(Collections.emptyList())
                 .build();
 
-        when(userRepository.existsByEmail("juan@rodriguez.org")).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("Unique index or primary key violation"),
+                        "PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL NULLS FIRST)")));
 
         // Act & Assert
         DuplicateEmailException exception = assertThrows(
@@ -112,8 +166,8 @@ class UserServiceTest {
         );
 
         assertEquals("El correo ya registrado", exception.getMessage());
-        verify(userRepository).existsByEmail("juan@rodriguez.org");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -133,8 +187,7 @@ class UserServiceTest {
         );
 
         assertEquals("El formato del correo es inválido", exception.getMessage());
-        verify(userRepository, never()).existsByEmail(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -154,7 +207,80 @@ class UserServiceTest {
         );
 
         assertEquals("La contraseña debe tener al menos 6 caracteres", exception.getMessage());
-        verify(userRepository, never()).existsByEmail(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    void findPage_WithNonPositiveLimit_ShouldThrowValidationException() {
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> userService.findPage(null, 0)
+        );
+
+        assertEquals("El parámetro limit debe ser mayor que 0", exception.getMessage());
+        verify(userRepository, never()).findResponsesPage(any(Pageable.class));
+    }
+
+    @Test
+    void findPage_WithLimitAboveMax_ShouldClampToMaxAndSeekAfterCursor() {
+        ReflectionTestUtils.setField(userService, "maxPageLimit", 50);
+        UUID after = UUID.randomUUID();
+
+        when(userRepository.findResponsesAfter(eq(after), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        userService.findPage(after, 5000);
+
+        verify(userRepository).findResponsesAfter(after, PageRequest.of(0, 50));
+    }
+
+    @Test
+    void findByPhone_WithLocalNumberOnly_ShouldThrowValidationException() {
+        assertThrows(ValidationException.class, () -> userService.findByPhone("912345678", null, null));
+
+        verify(phoneRepository, never()).findUserIdsByE164(anyString());
+    }
+
+    @Test
+    void findByPhone_WithRegistrationFields_ShouldLookUpNormalizedNumber() {
+        when(phoneRepository.findUserIdsByE164("+56912345678")).thenReturn(Collections.emptyList());
+
+        assertTrue(userService.findByPhone("1234-5678", "9", "+56").isEmpty());
+
+        verify(phoneRepository).findUserIdsByE164("+56912345678");
+    }
+
+    @Test
+    void findByPhone_InInlineMode_ShouldLookUpBothIndexesAndReturnEachUserOnce() {
+        ReflectionTestUtils.setField(userService, "phoneStorage", PhoneStorage.INLINE);
+        UUID tableOwner = UUID.randomUUID();
+        UUID inlineOwner = UUID.randomUUID();
+        when(phoneRepository.findUserIdsByE164("+56912345678")).thenReturn(Arrays.asList(tableOwner, inlineOwner));
+        when(userRepository.findIdsByInlinePhoneE164("+56912345678")).thenReturn(Collections.singletonList(inlineOwner));
+        when(userRepository.findResponsesByIds(any())).thenReturn(Collections.emptyList());
+
+        userService.findByPhone("+56 9 1234 5678", null, null);
+
+        verify(userRepository).findResponsesByIds(new LinkedHashSet<>(Arrays.asList(tableOwner, inlineOwner)));
+    }
+
+    @Test
+    void registerUser_WithInvalidEmailAndShortPassword_ShouldReportBothViolations() {
+        // Arrange
+        UserRegistrationRequest request = UserRegistrationRequest.builder()
+                .name("Juan Rodriguez")
+                .email("invalid-email")
+                .password("123")
+                .phones(Collections.emptyList())
+                .build();
+
+        // Act & Assert
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> userService.registerUser(request)
+        );
+
+        assertEquals("El formato del correo es inválido, La contraseña debe tener al menos 6 caracteres", exception.getMessage());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 }
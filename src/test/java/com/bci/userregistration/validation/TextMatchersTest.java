@@ -0,0 +1,33 @@
+package com.bci.userregistration.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TextMatchersTest {
+
+    private static final String[] PATTERNS = {
+            TextMatchers.DEFAULT_EMAIL_PATTERN,
+            "^.{6,}$",
+            "^.{2,4}$",
+            "^.{3}$",
+            "^[a-z]+$"
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "juan@rodriguez.org", "juan.rodriguez+bci@sub.dominio-largo.cl", "a@b.cl", "a@.cl", "@rodriguez.org",
+            "juan@rodriguez", "juan@rodriguez.c", "juan@rodriguez.c0m", "juan@@rodriguez.org", "ju an@rodriguez.org",
+            "juan@rodri guez.org", "juan@rodriguez.org.", "juan@-.co", "ñandu@rodriguez.org", "juan@rodriguez.org\n",
+            "", "abc", "abcdef", "abc\ndef", "abcdefghij", "😀😀😀", "abc de"
+    })
+    void compile_ShouldMatchExactlyLikeTheRegex(String value) {
+        for (String regex : PATTERNS) {
+            assertEquals(Pattern.matches(regex, value), TextMatchers.compile(regex).matches(value),
+                    () -> regex + " con \"" + value + "\"");
+        }
+    }
+}